@@ -1,23 +1,32 @@
 package com.backup_manager.application.controller;
 
 import com.backup_manager.application.dto.BackupRequest;
-import com.backup_manager.application.dto.BackupResponse;
+import com.backup_manager.application.dto.HistoryPage;
 import com.backup_manager.application.progress.ProgressEmitter;
 import com.backup_manager.application.service.BackupService;
+import com.backup_manager.domain.exception.ActiveTaskConflictException;
+import com.backup_manager.domain.exception.JobQueueFullException;
+import com.backup_manager.domain.model.BackupOptions;
 import com.backup_manager.domain.model.BackupTask;
 import com.backup_manager.domain.model.Status;
+import com.backup_manager.domain.service.PathFilter;
 import com.backup_manager.infrastructure.persistence.BackupRepository;
+import com.backup_manager.infrastructure.persistence.HistoryFilter;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/backup")
 public class BackupController {
 
+    private static final int DEFAULT_HISTORY_LIMIT = 50;
+    private static final int MAX_HISTORY_LIMIT = 500;
+
     private final BackupService backupService;
     private final ProgressEmitter progressEmitter;
     private final BackupRepository backupRepository;
@@ -37,73 +46,96 @@ public class BackupController {
         if (sources == null || destinations == null || sources.isEmpty() || destinations.isEmpty()) {
             return ResponseEntity.badRequest().body("As listas não podem estar vazias");
         }
-        if (sources.size() != destinations.size()) {
+        boolean fanOut = Boolean.TRUE.equals(request.getFanOut());
+        if (!fanOut && sources.size() != destinations.size()) {
             return ResponseEntity.badRequest().body("O número de origens deve ser igual ao número de destinos.");
         }
 
-        List<Long> taskIds = new ArrayList<>();
-
-        for (int i = 0; i < sources.size(); i++) {
-            String source = sources.get(i);
-            String destination = destinations.get(i);
-
-            Optional<BackupTask> activeTask = backupService.getActiveTask(source, destination);
-            if (activeTask.isPresent()) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("error", "Já existe um backup ativo para este par origem/destino");
-                errorResponse.put("source", source);
-                errorResponse.put("destination", destination);
-                errorResponse.put("taskId", activeTask.get().getId());
-
-                return ResponseEntity.status(409).body(errorResponse);
-            }
+        BackupOptions options = new BackupOptions();
+        options.setParallelism(request.getParallelism());
+        options.setIncremental(Boolean.TRUE.equals(request.getIncremental()));
+        options.setDeleteRemoved(Boolean.TRUE.equals(request.getDeleteRemoved()));
+        options.setCompress(Boolean.TRUE.equals(request.getCompress()));
+        if (request.getFormat() != null) {
+            options.setFormat(request.getFormat());
+        }
+        options.setInclude(request.getInclude());
+        options.setExclude(request.getExclude());
+        options.setMinSize(request.getMinSize());
+        options.setMaxSize(request.getMaxSize());
+        options.setMaxAgeDays(request.getMaxAgeDays());
+        options.setVerify(Boolean.TRUE.equals(request.getVerify()));
+        // Com verify, o hash gravado na cópia poupa a releitura da origem na verificação
+        options.setChecksum(request.getChecksum() != null ? request.getChecksum() : options.isVerify());
 
-            backupService.runBackup(source, destination);
+        try {
+            PathFilter.compile(List.of(), options);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Regra de inclusão/exclusão inválida: " + e.getMessage());
+        }
 
-            List<BackupTask> recentTasks = backupRepository.findBySourcePathAndDestinationPathOrderByIdDesc(source, destination);
-            if (!recentTasks.isEmpty()) {
-                taskIds.add(recentTasks.getFirst().getId());
+        // Com fan-out cada origem vai para todos os destinos; sem, todos os pares vão em um único lote
+        List<Long> taskIds = new ArrayList<>();
+        try {
+            if (fanOut) {
+                for (String source : sources) {
+                    backupService.runFanOut(source, destinations, options).forEach(task -> taskIds.add(task.getId()));
+                }
+            } else {
+                backupService.runBatch(sources, destinations, options).forEach(task -> taskIds.add(task.getId()));
             }
+        } catch (ActiveTaskConflictException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("source", e.getSourcePath());
+            errorResponse.put("destination", e.getDestinationPath());
+            errorResponse.put("taskId", e.getTaskId());
+            errorResponse.put("taskIds", taskIds);
+
+            return ResponseEntity.status(409).body(errorResponse);
+        } catch (JobQueueFullException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("taskIds", taskIds);
+
+            return ResponseEntity.status(429).body(errorResponse);
         }
 
         Map<String, Object> response = new HashMap<>();
-        response.put("message", "Backup(s) iniciado(s) com sucesso");
+        response.put("message", "Backup(s) na fila de execução");
         response.put("taskIds", taskIds);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.accepted().body(response);
     }
 
+    /**
+     * Histórico paginado por chave, do mais recente para o mais antigo. Filtros opcionais:
+     * status (repetível), origem e intervalo de início [from, to). Para a próxima página,
+     * repita a consulta com before = nextCursor.
+     */
     @GetMapping("/history")
-    public ResponseEntity<?> getBackupHistory() {
+    public ResponseEntity<?> getBackupHistory(
+            @RequestParam(required = false) List<Status> status,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "" + DEFAULT_HISTORY_LIMIT) int limit) {
         try {
-            List<BackupTask> tasks = backupService.getAllTasks();
-            List<BackupResponse> responseList = new ArrayList<>();
-
-            for (BackupTask task : tasks) {
-                String duration = "";
-                if (task.getStartedAt() != null && task.getFinishedAt() != null) {
-                    long seconds = java.time.Duration.between(task.getStartedAt(), task.getFinishedAt()).getSeconds();
-                    duration = String.format("%02d:%02d:%02d",
-                            seconds / 3600, (seconds % 3600) / 60, seconds % 60);
-                }
+            HistoryFilter filter = new HistoryFilter();
+            filter.setStatuses(status);
+            filter.setSourcePath(source);
+            filter.setStartedFrom(from);
+            filter.setStartedTo(to);
 
-                BackupResponse dto = new BackupResponse(
-                        task.getSourcePath(),
-                        task.getDestinationPath(),
-                        task.getStatus(),
-                        task.getErrorMessage(),
-                        task.getFileCount(),
-                        task.getTotalSizeMB(),
-                        task.getStartedAt(),
-                        task.getFinishedAt(),
-                        task.getPausedAt(),
-                        duration
-                );
-
-                responseList.add(dto);
-            }
+            int pageSize = Math.clamp(limit, 1, MAX_HISTORY_LIMIT);
+            HistoryPage page = backupService.getHistory(filter, before, pageSize);
 
-            return ResponseEntity.ok(responseList);
+            Map<String, Object> response = new HashMap<>();
+            response.put("items", page.getItems());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("limit", pageSize);
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Erro ao listar histórico: " + e.getMessage());
@@ -111,8 +143,10 @@ public class BackupController {
     }
 
     @GetMapping("/progress")
-    public SseEmitter streamProgress() {
-        return progressEmitter.createEmitter();
+    public SseEmitter streamProgress(
+            @RequestParam(required = false) Long taskId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return progressEmitter.createEmitter(taskId, lastEventId);
     }
 
     @PostMapping("/{taskId}/pause")
@@ -157,6 +191,25 @@ public class BackupController {
         }
     }
 
+    @PostMapping("/{taskId}/verify")
+    public ResponseEntity<?> verifyBackup(@PathVariable Long taskId,
+                                          @RequestParam(required = false) Integer parallelism) {
+        try {
+            if (!backupService.verifyBackup(taskId, parallelism)) {
+                return ResponseEntity.status(404).body("Tarefa não encontrada ou não concluída");
+            }
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (JobQueueFullException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Verificação agendada. O resultado será gravado na tarefa.");
+        response.put("taskId", taskId);
+        return ResponseEntity.accepted().body(response);
+    }
+
     @GetMapping("/{taskId}/status")
     public ResponseEntity<?> getTaskStatus(@PathVariable Long taskId) {
         Optional<BackupTask> task = backupRepository.findById(taskId);
@@ -169,12 +222,6 @@ public class BackupController {
 
     @GetMapping("/active")
     public ResponseEntity<?> getActiveTasks() {
-        List<BackupTask> allTasks = backupRepository.findAll();
-        List<BackupTask> activeTasks = allTasks.stream()
-                .filter(t -> t.getStatus() == Status.EM_ANDAMENTO ||
-                        t.getStatus() == Status.PAUSADO)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(activeTasks);
+        return ResponseEntity.ok(backupService.getActiveTasks());
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.backup_manager.application.controller;
+
+import com.backup_manager.application.dto.RestoreRequest;
+import com.backup_manager.application.service.DedupStoreService;
+import com.backup_manager.application.service.PackStoreService;
+import com.backup_manager.domain.model.DestinationFormat;
+import com.backup_manager.infrastructure.storage.ChunkStore;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/store")
+public class StoreController {
+
+    private final DedupStoreService dedupStoreService;
+    private final PackStoreService packStoreService;
+
+    public StoreController(DedupStoreService dedupStoreService, PackStoreService packStoreService) {
+        this.dedupStoreService = dedupStoreService;
+        this.packStoreService = packStoreService;
+    }
+
+    @PostMapping("/restore")
+    public ResponseEntity<?> restore(@RequestBody RestoreRequest request) {
+        if (request.getDestination() == null || request.getTarget() == null) {
+            return ResponseEntity.badRequest().body("Destino e diretório de restauração são obrigatórios");
+        }
+
+        try {
+            long restored = isPacked(request.getDestination(), request.getFormat())
+                    ? packStoreService.restore(request.getDestination(), request.getManifest(), request.getTarget())
+                    : dedupStoreService.restore(request.getDestination(), request.getManifest(), request.getTarget());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Restauração concluída");
+            response.put("restoredFiles", restored);
+            response.put("target", request.getTarget());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Erro ao restaurar backup: " + e.getMessage());
+        }
+    }
+
+    // Sem formato informado, só usa os pacotes se o destino não tiver store de deduplicação
+    private boolean isPacked(String destination, DestinationFormat format) {
+        if (format != null) {
+            return format == DestinationFormat.PACKED;
+        }
+        return !new ChunkStore(Path.of(destination)).exists() && packStoreService.isPackDestination(destination);
+    }
+
+    @PostMapping("/gc")
+    public ResponseEntity<?> collectGarbage(@RequestParam String destination,
+                                            @RequestParam(required = false) DestinationFormat format) {
+        try {
+            boolean packed = isPacked(destination, format);
+            long removed = packed
+                    ? packStoreService.collect(Path.of(destination))
+                    : dedupStoreService.collect(Path.of(destination));
+            if (removed < 0) {
+                return ResponseEntity.status(409).body("Store em uso por um backup em andamento");
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Coleta de lixo concluída");
+            response.put(packed ? "removedFiles" : "removedChunks", removed);
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Erro na coleta de lixo: " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.backup_manager.application.dto;
 
+import com.backup_manager.domain.model.DestinationFormat;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,4 +13,34 @@ public class BackupRequest {
     private List<String> sources;
     private List<String> destination;
 
+    // Número de workers de cópia por tarefa (opcional)
+    private Integer parallelism;
+
+    private Boolean incremental;
+    private Boolean deleteRemoved;
+
+    // Comprime arquivos de texto e afins no destino (formato PLAIN): cada um vira "nome.gz", restaurável com gunzip
+    private Boolean compress;
+
+    // PLAIN (cópia simples), DEDUP (store endereçado por conteúdo) ou PACKED (arquivos pequenos em pacotes)
+    private DestinationFormat format;
+
+    // Globs ou "regex:..." (ex.: "*.tmp", "node_modules", "build/**")
+    private List<String> include;
+    private List<String> exclude;
+
+    // Tamanho em bytes e idade máxima (dias desde a última modificação) dos arquivos copiados
+    private Long minSize;
+    private Long maxSize;
+    private Integer maxAgeDays;
+
+    // Cada origem vai para todos os destinos, lida uma única vez (listas podem ter tamanhos diferentes)
+    private Boolean fanOut;
+
+    // Confere o destino contra a origem ao fim da cópia
+    private Boolean verify;
+
+    // Hash de cada arquivo calculado durante a cópia (padrão: ligado só com verify)
+    private Boolean checksum;
+
 }
@@ -2,7 +2,6 @@ package com.backup_manager.application.dto;
 
 import com.backup_manager.domain.model.Status;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,10 +12,10 @@ import java.util.Objects;
 
 @Getter
 @Setter
-@AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class BackupResponse {
 
+    private Long id;
     private String sourcePath;
     private String destinationPath;
     private Status status;
@@ -28,6 +27,23 @@ public class BackupResponse {
     private LocalDateTime pausedAt;
     private String duration;
 
+    // Projeção do histórico: a duração em segundos vem calculada pelo banco
+    public BackupResponse(Long id, String sourcePath, String destinationPath, Status status, String errorMessage,
+                          Long fileCount, BigDecimal totalSizeMB, LocalDateTime startedAt, LocalDateTime finishedAt,
+                          LocalDateTime pausedAt, Long durationSeconds) {
+        this.id = id;
+        this.sourcePath = sourcePath;
+        this.destinationPath = destinationPath;
+        this.status = status;
+        this.errorMessage = errorMessage;
+        this.fileCount = fileCount;
+        setTotalSizeMB(totalSizeMB);
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.pausedAt = pausedAt;
+        this.duration = durationSeconds == null ? "" : String.format("%02d:%02d:%02d",
+                durationSeconds / 3600, (durationSeconds % 3600) / 60, durationSeconds % 60);
+    }
 
     public void setTotalSizeMB(BigDecimal sizeMB) {
         this.totalSizeMB = Objects.requireNonNullElse(sizeMB, BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
@@ -0,0 +1,16 @@
+package com.backup_manager.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class HistoryPage {
+
+    private List<BackupResponse> items;
+
+    // Id a passar em "before" para a próxima página; nulo na última
+    private Long nextCursor;
+}
@@ -1,15 +1,44 @@
 package com.backup_manager.application.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
-@AllArgsConstructor
 public class Progress {
 
+    // Percentual por bytes (por arquivos quando a origem não tem bytes)
     private int percent;
     private String currentFile;
     private int processedFiles;
     private int totalFiles;
     private String taskId;
+    private long processedBytes;
+    private long totalBytes;
+    private int filesPercent;
+
+    // Bytes realmente copiados (processedBytes inclui os arquivos pulados); base da vazão
+    private long transferredBytes;
+
+    // Preenchidos pelo ProgressPublisher na publicação: vazão desde a publicação anterior,
+    // vazão na janela móvel e tempo restante estimado por ela (nulo enquanto não há amostras)
+    private BigDecimal mbPerSec;
+    private BigDecimal avgMbPerSec;
+    private Long etaSeconds;
+
+    public Progress(int percent, String currentFile, int processedFiles, int totalFiles, String taskId,
+                    long processedBytes, long totalBytes) {
+        this.percent = percent;
+        this.currentFile = currentFile;
+        this.processedFiles = processedFiles;
+        this.totalFiles = totalFiles;
+        this.taskId = taskId;
+        this.processedBytes = processedBytes;
+        this.totalBytes = totalBytes;
+        this.filesPercent = totalFiles > 0 ? (int) ((processedFiles * 100L) / totalFiles) : 0;
+    }
+
+    public Progress(int percent, String currentFile, int processedFiles, int totalFiles, String taskId) {
+        this(percent, currentFile, processedFiles, totalFiles, taskId, 0, 0);
+    }
 }
@@ -0,0 +1,22 @@
+package com.backup_manager.application.dto;
+
+import com.backup_manager.domain.model.DestinationFormat;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RestoreRequest {
+
+    // Destino do backup onde fica o store
+    private String destination;
+
+    // Manifesto (DEDUP) ou índice (PACKED) a restaurar; vazio para o mais recente
+    private String manifest;
+
+    // Diretório onde a árvore será reconstruída
+    private String target;
+
+    // DEDUP ou PACKED; vazio para detectar pelo conteúdo do destino
+    private DestinationFormat format;
+}
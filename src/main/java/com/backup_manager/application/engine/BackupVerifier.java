@@ -0,0 +1,350 @@
+package com.backup_manager.application.engine;
+
+import com.backup_manager.application.metrics.BackupMetrics;
+import com.backup_manager.application.service.DedupStoreService;
+import com.backup_manager.application.service.PackStoreService;
+import com.backup_manager.domain.model.DestinationFormat;
+import com.backup_manager.domain.model.WarningCode;
+import com.backup_manager.infrastructure.logging.WarningLog;
+import com.backup_manager.infrastructure.storage.ChunkStore;
+import com.backup_manager.infrastructure.storage.ChunkStore.StoredEntry;
+import com.backup_manager.infrastructure.storage.ContentHash;
+import com.backup_manager.infrastructure.storage.DestinationIndex;
+import com.backup_manager.infrastructure.storage.FileCompressor;
+import com.backup_manager.infrastructure.storage.PackStore;
+import com.backup_manager.infrastructure.storage.PackStore.Kind;
+import com.backup_manager.infrastructure.storage.PackStore.PackedEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Confere um backup contra a origem: para cada arquivo registrado no destino (índice, manifesto
+ * ou índice de pacotes, conforme o formato), calcula o {@link ContentHash} do conteúdo gravado
+ * e do arquivo de origem e compara. Os arquivos são divididos entre os workers de um
+ * {@link ForkJoinPool} próprio, como na cópia.
+ *
+ * Quando o registro já traz o hash calculado durante a cópia, o conteúdo gravado é comparado
+ * com ele e a origem nem é lida. Sem hash registrado, arquivos alterados na origem desde o backup
+ * (tamanho ou mtime diferentes) não são conferidos. Divergências vão para o warnings.log do destino.
+ * Nos formatos DEDUP e PACKED a trava de leitura do store fica presa durante toda a verificação,
+ * para que a coleta de lixo não remova blocos ou pacotes ainda por conferir.
+ */
+@Component
+public class BackupVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupVerifier.class);
+
+    private static final int MIN_BATCH = 16;
+
+    private final BackupMetrics metrics;
+    private final DedupStoreService dedupStoreService;
+    private final PackStoreService packStoreService;
+    private final int defaultParallelism;
+
+    public BackupVerifier(
+            BackupMetrics metrics,
+            DedupStoreService dedupStoreService,
+            PackStoreService packStoreService,
+            @Value("${backup.verify.parallelism:4}") int defaultParallelism
+    ) {
+        this.metrics = metrics;
+        this.dedupStoreService = dedupStoreService;
+        this.packStoreService = packStoreService;
+        this.defaultParallelism = Math.max(1, defaultParallelism);
+    }
+
+    public VerifyResult verify(Path source, Path destination, DestinationFormat format, Integer parallelism)
+            throws IOException {
+        DestinationFormat resolved = format == null ? DestinationFormat.PLAIN : format;
+        Lock lock = switch (resolved) {
+            case PLAIN -> null;
+            case DEDUP -> dedupStoreService.readLock(destination);
+            case PACKED -> packStoreService.readLock(destination);
+        };
+        if (lock == null) {
+            return run(source, destination, resolved, parallelism);
+        }
+        lock.lock();
+        try {
+            return run(source, destination, resolved, parallelism);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private VerifyResult run(Path source, Path destination, DestinationFormat format, Integer parallelism)
+            throws IOException {
+        long startedAt = System.nanoTime();
+        List<StoredFile> files = switch (format) {
+            case PLAIN -> plainFiles(destination);
+            case DEDUP -> dedupFiles(source, destination);
+            case PACKED -> packedFiles(source, destination);
+        };
+
+        int workers = parallelism != null && parallelism > 0 ? parallelism : defaultParallelism;
+        Verification verification = new Verification(source, new WarningLog(destination.resolve(WarningLog.FILE_NAME)));
+        try {
+            if (!files.isEmpty()) {
+                ForkJoinPool pool = new ForkJoinPool(workers);
+                try {
+                    int batch = Math.max(MIN_BATCH, files.size() / (workers * 8));
+                    pool.invoke(new VerifyRange(verification, files, 0, files.size(), batch));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            verification.warnings.close();
+            metrics.warnings(verification.warnings.getCounts());
+        }
+
+        VerifyResult result = new VerifyResult(
+                verification.verified.get(),
+                verification.mismatches.get(),
+                verification.skipped.get(),
+                verification.bytes.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)
+        );
+        logger.info("Verificação de {} com {} worker(s): {} conferido(s), {} divergente(s), {} ignorado(s), {} MB/s",
+                destination, workers, result.getVerifiedFiles(), result.getMismatches(), result.getSkippedFiles(),
+                result.getMbPerSec());
+        return result;
+    }
+
+    private static List<StoredFile> plainFiles(Path destination) throws IOException {
+        DestinationIndex index = DestinationIndex.load(destination);
+        List<StoredFile> files = new ArrayList<>(index.size());
+        for (String path : index.paths()) {
+            DestinationIndex.Entry entry = index.get(path);
+            Path target = destination.resolve(path);
+            Path compressed = FileCompressor.compressedPath(target);
+            files.add(new StoredFile(path, entry.getSize(), entry.getLastModified(), entry.getHash(), () -> {
+                if (Files.exists(target)) {
+                    return ContentHash.of(target);
+                }
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed), 64 * 1024)) {
+                    return ContentHash.of(in);
+                }
+            }));
+        }
+        return files;
+    }
+
+    // Último manifesto concluído da mesma origem
+    private static List<StoredFile> dedupFiles(Path source, Path destination) throws IOException {
+        ChunkStore store = new ChunkStore(destination);
+        List<Path> manifests = store.listManifests();
+        for (int i = manifests.size() - 1; i >= 0; i--) {
+            if (!source.toString().equals(store.readSource(manifests.get(i)))) {
+                continue;
+            }
+            List<StoredFile> files = new ArrayList<>();
+            for (StoredEntry entry : store.readManifest(manifests.get(i))) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                files.add(new StoredFile(entry.getRelativePath(), entry.getSize(), entry.getLastModified(), null, () -> {
+                    CRC32C crc = new CRC32C();
+                    for (String hash : entry.getChunks()) {
+                        try (FileChannel chunk = FileChannel.open(store.chunkPath(hash), StandardOpenOption.READ)) {
+                            ContentHash.update(crc, chunk, 0, chunk.size());
+                        }
+                    }
+                    return ContentHash.format(crc);
+                }));
+            }
+            return files;
+        }
+        throw new IllegalArgumentException("Nenhum manifesto concluído de " + source + " em " + destination);
+    }
+
+    private static List<StoredFile> packedFiles(Path source, Path destination) throws IOException {
+        PackStore store = new PackStore(destination);
+        List<Path> indexes = store.listIndexes();
+        for (int i = indexes.size() - 1; i >= 0; i--) {
+            if (!source.toString().equals(store.readSource(indexes.get(i)))) {
+                continue;
+            }
+            List<StoredFile> files = new ArrayList<>();
+            for (PackedEntry entry : store.readIndex(indexes.get(i))) {
+                if (entry.getKind() == Kind.DIRECTORY) {
+                    continue;
+                }
+                files.add(new StoredFile(entry.getRelativePath(), entry.getSize(), entry.getLastModified(),
+                        entry.getHash(), () -> {
+                    if (entry.getKind() == Kind.FILE) {
+                        return ContentHash.of(store.filePath(entry));
+                    }
+                    CRC32C crc = new CRC32C();
+                    try (FileChannel pack = FileChannel.open(store.packPath(entry.getPack()), StandardOpenOption.READ)) {
+                        if (entry.getOffset() + entry.getSize() > pack.size()) {
+                            throw new NoSuchFileException(entry.getRelativePath(), null, "pacote truncado");
+                        }
+                        ContentHash.update(crc, pack, entry.getOffset(), entry.getSize());
+                    }
+                    return ContentHash.format(crc);
+                }));
+            }
+            return files;
+        }
+        throw new IllegalArgumentException("Nenhum índice concluído de " + source + " em " + destination);
+    }
+
+    private static void verifyFile(Verification verification, StoredFile file) {
+        Path sourceFile = verification.source.resolve(file.relativePath);
+        if (file.recordedHash != null) {
+            verifyRecorded(verification, file, sourceFile);
+            return;
+        }
+        try {
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(sourceFile, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                verification.skip(sourceFile, e);
+                return;
+            }
+            if (attrs.size() != file.size || attrs.lastModifiedTime().toMillis() != file.lastModified) {
+                verification.skip(sourceFile, null);
+                return;
+            }
+
+            String stored;
+            try {
+                stored = file.hasher.hash();
+            } catch (NoSuchFileException e) {
+                verification.mismatch(WarningCode.VERIFY_MISSING, sourceFile, e);
+                return;
+            }
+            String expected = ContentHash.of(sourceFile);
+            verification.bytes.addAndGet(file.size);
+
+            if (expected.equals(stored)) {
+                verification.verified.incrementAndGet();
+            } else {
+                verification.mismatch(WarningCode.VERIFY_MISMATCH, sourceFile, null);
+            }
+        } catch (IOException | RuntimeException e) {
+            verification.mismatch(WarningCode.VERIFY_FAILED, sourceFile, e);
+        }
+    }
+
+    // Hash registrado na cópia: só o destino é lido
+    private static void verifyRecorded(Verification verification, StoredFile file, Path sourceFile) {
+        try {
+            String stored = file.hasher.hash();
+            verification.bytes.addAndGet(file.size);
+            if (file.recordedHash.equals(stored)) {
+                verification.verified.incrementAndGet();
+            } else {
+                verification.mismatch(WarningCode.VERIFY_MISMATCH, sourceFile, null);
+            }
+        } catch (NoSuchFileException e) {
+            verification.mismatch(WarningCode.VERIFY_MISSING, sourceFile, e);
+        } catch (IOException | RuntimeException e) {
+            verification.mismatch(WarningCode.VERIFY_FAILED, sourceFile, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Hasher {
+        String hash() throws IOException;
+    }
+
+    private static final class StoredFile {
+
+        private final String relativePath;
+        private final long size;
+        private final long lastModified;
+
+        // Hash calculado durante a cópia; nulo quando não houve
+        private final String recordedHash;
+        private final Hasher hasher;
+
+        StoredFile(String relativePath, long size, long lastModified, String recordedHash, Hasher hasher) {
+            this.relativePath = relativePath;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.recordedHash = recordedHash;
+            this.hasher = hasher;
+        }
+    }
+
+    private static final class Verification {
+
+        private final Path source;
+        private final WarningLog warnings;
+        private final AtomicLong verified = new AtomicLong();
+        private final AtomicLong mismatches = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        Verification(Path source, WarningLog warnings) {
+            this.source = source;
+            this.warnings = warnings;
+        }
+
+        void skip(Path file, Throwable error) {
+            skipped.incrementAndGet();
+            warnings.warn(WarningCode.VERIFY_SOURCE_CHANGED, file, error);
+        }
+
+        void mismatch(WarningCode code, Path file, Throwable error) {
+            mismatches.incrementAndGet();
+            warnings.warn(code, file, error);
+        }
+    }
+
+    private static class VerifyRange extends RecursiveAction {
+
+        private final Verification verification;
+        private final List<StoredFile> files;
+        private final int from;
+        private final int to;
+        private final int batch;
+
+        VerifyRange(Verification verification, List<StoredFile> files, int from, int to, int batch) {
+            this.verification = verification;
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.batch = batch;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > batch) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new VerifyRange(verification, files, from, mid, batch),
+                        new VerifyRange(verification, files, mid, to, batch)
+                );
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                verifyFile(verification, files.get(i));
+            }
+        }
+    }
+}
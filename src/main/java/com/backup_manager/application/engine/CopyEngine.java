@@ -0,0 +1,771 @@
+package com.backup_manager.application.engine;
+
+import com.backup_manager.application.dto.Progress;
+import com.backup_manager.application.metrics.BackupMetrics;
+import com.backup_manager.application.progress.ProgressPublisher;
+import com.backup_manager.application.service.DedupStoreService;
+import com.backup_manager.application.service.PackStoreService;
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.DestinationFormat;
+import com.backup_manager.domain.model.ManifestEntry;
+import com.backup_manager.domain.model.SkippedPath;
+import com.backup_manager.domain.model.SourceManifest;
+import com.backup_manager.domain.model.WarningCode;
+import com.backup_manager.domain.service.BackupTaskManager;
+import com.backup_manager.domain.service.TaskControl;
+import com.backup_manager.infrastructure.storage.BackupJournal;
+import com.backup_manager.infrastructure.storage.CopyStrategy;
+import com.backup_manager.infrastructure.storage.DestinationWriter;
+import com.backup_manager.infrastructure.storage.FileCompressor;
+import com.backup_manager.infrastructure.storage.FileSink;
+import com.backup_manager.infrastructure.storage.LargeFileCopier;
+import com.backup_manager.infrastructure.storage.PlainDirectoryWriter;
+import com.backup_manager.infrastructure.storage.TransferMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Motor de cópia de uma tarefa. Os diretórios do manifesto são criados
+ * em sequência e os arquivos são divididos entre os workers de um
+ * {@link ForkJoinPool} próprio da tarefa (work-stealing).
+ */
+@Component
+public class CopyEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(CopyEngine.class);
+
+    // Cada worker divide sua faixa até chegar a este tamanho
+    private static final int MIN_BATCH = 16;
+
+    private final ProgressPublisher progressPublisher;
+    private final BackupMetrics metrics;
+    private final BackupTaskManager taskManager;
+    private final DedupStoreService dedupStoreService;
+    private final PackStoreService packStoreService;
+    private final int defaultParallelism;
+    private final long largeFileThreshold;
+    private final int largeFileChunkSize;
+    private final CopyStrategy largeFileStrategy;
+    private final long checkpointBytes;
+
+    public CopyEngine(
+            ProgressPublisher progressPublisher,
+            BackupMetrics metrics,
+            BackupTaskManager taskManager,
+            DedupStoreService dedupStoreService,
+            PackStoreService packStoreService,
+            @Value("${backup.copy.parallelism:4}") int defaultParallelism,
+            @Value("${backup.copy.large-file.threshold-mb:64}") long largeFileThresholdMb,
+            @Value("${backup.copy.large-file.chunk-kb:8192}") int largeFileChunkKb,
+            @Value("${backup.copy.large-file.strategy:AUTO}") CopyStrategy largeFileStrategy,
+            @Value("${backup.copy.large-file.checkpoint-mb:256}") long checkpointMb
+    ) {
+        this.progressPublisher = progressPublisher;
+        this.metrics = metrics;
+        this.taskManager = taskManager;
+        this.dedupStoreService = dedupStoreService;
+        this.packStoreService = packStoreService;
+        this.defaultParallelism = Math.max(1, defaultParallelism);
+        this.largeFileThreshold = largeFileThresholdMb * 1024 * 1024;
+        this.largeFileChunkSize = Math.max(64, largeFileChunkKb) * 1024;
+        this.largeFileStrategy = largeFileStrategy;
+        this.checkpointBytes = checkpointMb * 1024 * 1024;
+    }
+
+    public int resolveParallelism(Integer requested) {
+        if (requested == null || requested < 1) {
+            return defaultParallelism;
+        }
+        return requested;
+    }
+
+    public CopyResult copy(SourceManifest manifest, Path destination, Long taskId, BackupOptions options)
+            throws IOException {
+        int parallelism = resolveParallelism(options.getParallelism());
+        long startedAt = System.nanoTime();
+        CopyJob job = openJob(manifest, destination, taskId, options);
+
+        List<ManifestEntry> files = manifest.getEntries().stream()
+                .filter(e -> !e.isDirectory())
+                .toList();
+
+        try {
+            createDirectories(job, manifest.getEntries(), true);
+
+            if (!job.isStopped() && !files.isEmpty()) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    int batch = Math.max(MIN_BATCH, files.size() / (parallelism * 8));
+                    pool.invoke(new CopyRange(job, files, 0, files.size(), batch));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            closeJob(job, files);
+        }
+
+        return resultOf(job, parallelism, startedAt);
+    }
+
+    /**
+     * Copia o manifesto para vários destinos lendo cada arquivo da origem uma única vez.
+     * Cada bloco lido é entregue a todos os destinos ao mesmo tempo; a falha de um destino
+     * (ao abrir, criar diretórios ou gravar) afeta só a tarefa dele.
+     * A leitura compartilhada nunca espera por uma tarefa: a pausada descarta o arquivo em curso
+     * e adia os que passarem durante a pausa, que ela copia sozinha (com a própria leitura) depois
+     * da leitura compartilhada; ao ser retomada antes disso, volta a receber os blocos seguintes.
+     * Uma tarefa cancelada deixa de receber blocos e as demais seguem.
+     *
+     * @param destinations taskId -> destino, na ordem desejada
+     * @param onResult     recebe o resultado de cada destino assim que ele termina, sem esperar
+     *                     por uma tarefa pausada
+     */
+    public void copyFanOut(SourceManifest manifest, Map<Long, Path> destinations, BackupOptions options,
+                           Consumer<FanOutResult> onResult) {
+        int parallelism = resolveParallelism(options.getParallelism());
+        long startedAt = System.nanoTime();
+        List<CopyJob> jobs = new ArrayList<>();
+
+        for (Map.Entry<Long, Path> destination : destinations.entrySet()) {
+            try {
+                jobs.add(openJob(manifest, destination.getValue(), destination.getKey(), options));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Destino {} da tarefa {} não pôde ser aberto: {}",
+                        destination.getValue(), destination.getKey(), e.getMessage());
+                onResult.accept(new FanOutResult(destination.getKey(), null, e));
+            }
+        }
+
+        List<ManifestEntry> files = manifest.getEntries().stream()
+                .filter(e -> !e.isDirectory())
+                .toList();
+
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (CopyJob job : jobs) {
+                createDirectories(job, manifest.getEntries(), false);
+            }
+
+            if (!files.isEmpty() && jobs.stream().anyMatch(job -> !job.isStopped())) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    int batch = Math.max(MIN_BATCH, files.size() / (parallelism * 8));
+                    pool.invoke(new FanOutRange(new FanOut(manifest.getRoot(), jobs, writers), files, 0, files.size(), batch));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            // Cada destino fecha por conta própria: um pausado com arquivos adiados não segura os demais
+            try (ExecutorService closers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (CopyJob job : jobs) {
+                    closers.submit(() -> completeFanOutJob(job, files, parallelism, startedAt, onResult));
+                }
+            }
+        }
+    }
+
+    /**
+     * Fecha um destino do fan-out e entrega o resultado. Roda numa thread própria, cujas exceções
+     * iriam para um Future descartado: qualquer erro vira o resultado da tarefa, que nunca fica sem
+     * resposta.
+     */
+    private void completeFanOutJob(CopyJob job, List<ManifestEntry> files, int parallelism, long startedAt,
+                                   Consumer<FanOutResult> onResult) {
+        RuntimeException error = null;
+        try {
+            copyDeferred(job, parallelism);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao copiar arquivos adiados da tarefa {}", job.getTaskId(), e);
+            error = e;
+        }
+        try {
+            closeJob(job, files);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao fechar a tarefa {} do fan-out", job.getTaskId(), e);
+            error = error != null ? error : e;
+        }
+
+        try {
+            onResult.accept(error != null
+                    ? new FanOutResult(job.getTaskId(), null, error)
+                    : new FanOutResult(job.getTaskId(), resultOf(job, parallelism, startedAt), null));
+        } catch (RuntimeException e) {
+            logger.error("Erro ao finalizar a tarefa {} do fan-out", job.getTaskId(), e);
+        }
+    }
+
+    // Arquivos que passaram pela leitura compartilhada enquanto a tarefa estava pausada
+    private void copyDeferred(CopyJob job, int parallelism) {
+        List<ManifestEntry> deferred = new ArrayList<>(job.getDeferred());
+        if (deferred.isEmpty() || job.isStopped()) {
+            return;
+        }
+        logger.info("Tarefa {} copia à parte {} arquivo(s) adiado(s) durante a pausa", job.getTaskId(), deferred.size());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int batch = Math.max(MIN_BATCH, deferred.size() / (parallelism * 8));
+            pool.invoke(new CopyRange(job, deferred, 0, deferred.size(), batch));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private CopyJob openJob(SourceManifest manifest, Path destination, Long taskId, BackupOptions options)
+            throws IOException {
+        CopyJob job = new CopyJob(taskId, manifest, destination, options);
+        TaskControl control = taskManager.getControl(taskId);
+        job.setControl(control != null ? control : new TaskControl(null));
+        job.setJournal(options.getFormat() != DestinationFormat.DEDUP
+                ? BackupJournal.open(destination, taskId)
+                : BackupJournal.disabled());
+        if (job.getJournal().isResumed()) {
+            logger.info("Retomando tarefa {} pelo diário: {} arquivo(s) já concluído(s)",
+                    taskId, job.getJournal().getCompleted().size());
+        }
+        try {
+            job.setWriter(openWriter(job));
+        } catch (IOException | RuntimeException e) {
+            job.getJournal().delete();
+            job.getWarningLog().close();
+            throw e;
+        }
+
+        for (SkippedPath skipped : manifest.getSkipped()) {
+            job.logWarning(skipped.getCode(), skipped.getPath(), skipped.getError());
+        }
+        return job;
+    }
+
+    // Diário e warnings.log são fechados mesmo se o gravador falhar de forma inesperada
+    private void closeJob(CopyJob job, List<ManifestEntry> files) {
+        try {
+            finishWriter(job, files);
+        } finally {
+            try {
+                closeJournal(job);
+            } finally {
+                job.getWarningLog().close();
+                progressPublisher.flush(job.getTaskId());
+            }
+        }
+    }
+
+    private CopyResult resultOf(CopyJob job, int parallelism, long startedAt) {
+        Long taskId = job.getTaskId();
+        if (job.getWarningLog().getTotal() > 0) {
+            Map<WarningCode, Long> counts = job.getWarningLog().getCounts();
+            logger.info("Alertas da tarefa {} por tipo: {}", taskId, counts);
+            metrics.warnings(counts);
+        }
+
+        logger.info("Cópia da tarefa {} finalizada com {} worker(s): {} copiado(s), {} inalterado(s), {} removido(s)",
+                taskId, parallelism, job.getCopied().get(), job.getSkipped().get(), job.getDeleted().get());
+
+        return new CopyResult(
+                (int) job.getWarningLog().getTotal(),
+                job.getCopied().get(),
+                job.getSkipped().get(),
+                job.getDeleted().get(),
+                job.isStopped(),
+                job.getProcessedBytes().get(),
+                job.getTransferredBytes().get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+                job.getCompression()
+        );
+    }
+
+    private DestinationWriter openWriter(CopyJob job) throws IOException {
+        if (job.getOptions().getFormat() == DestinationFormat.DEDUP) {
+            return dedupStoreService.openWriter(job.getSource(), job.getDestination(), job.getTaskId(), job.getOptions());
+        }
+        LargeFileCopier largeFileCopier = new LargeFileCopier(resolveStrategy(job), largeFileChunkSize, checkpointBytes);
+        if (job.getOptions().getFormat() == DestinationFormat.PACKED) {
+            return packStoreService.openWriter(job.getSource(), job.getDestination(), job.getTaskId(), job.getOptions(),
+                    largeFileCopier, job.getJournal().getCompleted());
+        }
+        return new PlainDirectoryWriter(job.getDestination(), job.getOptions(), job::logWarning, largeFileCopier,
+                largeFileThreshold, job.getJournal().getCompleted(),
+                job.getOptions().isCompress() ? new FileCompressor(job.getCompression()) : null);
+    }
+
+    // O diário só sobrevive a uma queda da JVM; ao fim da tarefa ele não é mais necessário
+    private void closeJournal(CopyJob job) {
+        try {
+            job.getJournal().delete();
+        } catch (IOException e) {
+            logger.warn("Erro ao remover diário da tarefa {}: {}", job.getTaskId(), e.getMessage());
+        }
+    }
+
+    // AUTO: transferTo dentro do mesmo volume, buffer direto entre volumes
+    private CopyStrategy resolveStrategy(CopyJob job) {
+        if (largeFileStrategy != CopyStrategy.AUTO) {
+            return largeFileStrategy;
+        }
+        try {
+            FileStore sourceStore = Files.getFileStore(job.getSource());
+            FileStore destinationStore = Files.getFileStore(job.getDestination());
+            return sourceStore.equals(destinationStore) ? CopyStrategy.TRANSFER : CopyStrategy.BUFFER;
+        } catch (IOException e) {
+            return CopyStrategy.BUFFER;
+        }
+    }
+
+    private void finishWriter(CopyJob job, List<ManifestEntry> files) {
+        try {
+            long deleted = job.getWriter().finish(files, !job.isStopped());
+            job.getDeleted().addAndGet(deleted);
+        } catch (IOException e) {
+            job.logWarning(WarningCode.FINISH_FAILED, job.getDestination(), e);
+        }
+    }
+
+    // No fan-out (mayBlock = false) a pausa não segura a criação de diretórios dos outros destinos
+    private void createDirectories(CopyJob job, List<ManifestEntry> entries, boolean mayBlock) {
+        for (ManifestEntry entry : entries) {
+            if (!entry.isDirectory()) {
+                continue;
+            }
+            if (!(mayBlock ? checkPauseAndCancel(job) : checkCancel(job))) {
+                return;
+            }
+
+            Path dir = job.getSource().resolve(entry.getRelativePath());
+            Path target = job.getDestination().resolve(entry.getRelativePath());
+            if (job.isUnderFailedDir(target)) {
+                continue;
+            }
+
+            try {
+                job.getWriter().createDirectory(entry);
+            } catch (AccessDeniedException ade) {
+                job.logWarning(WarningCode.DIR_ACCESS_DENIED, dir, ade);
+                job.getFailedDirs().add(target);
+            } catch (IOException e) {
+                job.logWarning(WarningCode.DIR_CREATE_FAILED, dir, e);
+                job.getFailedDirs().add(target);
+            }
+        }
+    }
+
+    private void copyFile(CopyJob job, ManifestEntry entry) {
+        Path file = job.getSource().resolve(entry.getRelativePath());
+        Path target = job.getDestination().resolve(entry.getRelativePath());
+
+        // Itens abaixo de um diretório que não pôde ser criado são ignorados
+        if (job.isUnderFailedDir(target)) {
+            return;
+        }
+
+        FileMonitor monitor = new FileMonitor(job, file, entry.getRelativePath());
+        long started = System.nanoTime();
+
+        try {
+            if (job.getWriter().writeFile(file, entry, monitor)) {
+                job.getCopied().incrementAndGet();
+                job.getTransferredBytes().addAndGet(Math.max(0, entry.getSize() - monitor.reported));
+                metrics.fileCopied(entry.getSize(), System.nanoTime() - started);
+            } else {
+                job.getSkipped().incrementAndGet();
+                metrics.fileSkipped();
+            }
+
+            job.getJournal().fileDone(entry.getRelativePath());
+            job.getProcessedBytes().addAndGet(Math.max(0, entry.getSize() - monitor.reported));
+            sendProgress(job, file, job.getProcessed().incrementAndGet());
+
+        } catch (CancellationException ce) {
+            // Pausa/cancelamento no meio de um arquivo grande: a tarefa já foi parada
+        } catch (AccessDeniedException ade) {
+            job.logWarning(WarningCode.FILE_ACCESS_DENIED, file, ade);
+        } catch (IOException e) {
+            job.logWarning(WarningCode.FILE_COPY_FAILED, file, e);
+        } catch (Exception e) {
+            job.logWarning(WarningCode.FILE_UNEXPECTED_ERROR, file, e);
+        }
+    }
+
+    private void copyFanOutFile(FanOut fanOut, ManifestEntry entry, byte[] buffer) {
+        Path file = fanOut.source.resolve(entry.getRelativePath());
+        List<CopyJob> jobs = new ArrayList<>();
+        List<FileSink> sinks = new ArrayList<>();
+
+        for (CopyJob job : fanOut.jobs) {
+            if (!checkCancel(job) || job.isUnderFailedDir(job.getDestination().resolve(entry.getRelativePath()))) {
+                continue;
+            }
+            if (job.getControl().isPaused()) {
+                job.getDeferred().add(entry);
+                continue;
+            }
+            try {
+                FileSink sink = job.getWriter().openFile(file, entry);
+                if (sink == null) {
+                    job.getSkipped().incrementAndGet();
+                    metrics.fileSkipped();
+                    fileDone(job, file, entry, 0);
+                } else {
+                    jobs.add(job);
+                    sinks.add(sink);
+                }
+            } catch (IOException e) {
+                logFileWarning(job, file, e);
+            }
+        }
+        if (sinks.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        long read = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                read += n;
+                fanOut.writeAll(jobs, sinks, file, buffer, n);
+                for (int i = 0; i < jobs.size(); i++) {
+                    CopyJob job = jobs.get(i);
+                    if (sinks.get(i) == null) {
+                        continue;
+                    }
+                    job.getProcessedBytes().addAndGet(n);
+                    job.getTransferredBytes().addAndGet(n);
+                    sendProgress(job, file, job.getProcessed().get());
+                    if (!checkCancel(job)) {
+                        // Tarefa cancelada: sai do fan-out sem alerta
+                        sinks.get(i).abort();
+                        sinks.set(i, null);
+                    } else if (job.getControl().isPaused()) {
+                        // Pausada: descarta o arquivo e o copia depois, sem segurar a leitura
+                        sinks.get(i).abort();
+                        sinks.set(i, null);
+                        job.getProcessedBytes().addAndGet(-read);
+                        job.getTransferredBytes().addAndGet(-read);
+                        job.getDeferred().add(entry);
+                    }
+                }
+            }
+            LargeFileCopier.checkComplete(read, entry.getSize());
+        } catch (IOException e) {
+            // Erro de leitura na origem (ou origem que encolheu) vale para todos os destinos
+            for (int i = 0; i < jobs.size(); i++) {
+                if (sinks.get(i) != null) {
+                    sinks.get(i).abort();
+                    logFileWarning(jobs.get(i), file, e);
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < jobs.size(); i++) {
+            CopyJob job = jobs.get(i);
+            FileSink sink = sinks.get(i);
+            if (sink == null) {
+                continue;
+            }
+            try {
+                sink.commit();
+                job.getCopied().incrementAndGet();
+                job.getTransferredBytes().addAndGet(Math.max(0, entry.getSize() - read));
+                metrics.fileCopied(entry.getSize(), System.nanoTime() - started);
+                fileDone(job, file, entry, read);
+            } catch (IOException e) {
+                sink.abort();
+                logFileWarning(job, file, e);
+            }
+        }
+    }
+
+    private void fileDone(CopyJob job, Path file, ManifestEntry entry, long reported) throws IOException {
+        job.getJournal().fileDone(entry.getRelativePath());
+        job.getProcessedBytes().addAndGet(Math.max(0, entry.getSize() - reported));
+        sendProgress(job, file, job.getProcessed().incrementAndGet());
+    }
+
+    private static void logFileWarning(CopyJob job, Path file, IOException e) {
+        job.logWarning(e instanceof AccessDeniedException ? WarningCode.FILE_ACCESS_DENIED : WarningCode.FILE_COPY_FAILED,
+                file, e);
+    }
+
+    private void sendProgress(CopyJob job, Path file, int processed) {
+        int total = job.getTotalFiles();
+        long bytes = job.getProcessedBytes().get();
+        int percent;
+        if (job.getTotalBytes() > 0) {
+            percent = (int) Math.min(100, bytes * 100 / job.getTotalBytes());
+        } else {
+            percent = total > 0 ? (int) ((processed * 100L) / total) : 0;
+        }
+
+        Progress progress = new Progress(
+                percent,
+                file.toString(),
+                processed,
+                total,
+                job.getTaskId().toString(),
+                bytes,
+                job.getTotalBytes()
+        );
+        progress.setTransferredBytes(job.getTransferredBytes().get());
+
+        // Só guarda o estado; o envio aos clientes fica com o ProgressPublisher
+        progressPublisher.update(progress);
+    }
+
+    // Retorna false (e para a tarefa) quando foi cancelada; bloqueia enquanto estiver pausada
+    private boolean checkPauseAndCancel(CopyJob job) {
+        TaskControl control = job.getControl();
+        if (control.isRunning() && !job.getPauseNotified().get()) {
+            return !job.isStopped();
+        }
+
+        if (control.isPaused()) {
+            notifyPaused(job);
+            try {
+                control.awaitResume();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                job.stop();
+                return false;
+            }
+        }
+        return checkCancel(job);
+    }
+
+    /**
+     * Como {@link #checkPauseAndCancel}, mas sem bloquear: usado pela leitura compartilhada do
+     * fan-out, que não pode esperar por uma tarefa. Uma tarefa pausada retorna true e quem chama
+     * decide o que fazer com o arquivo.
+     */
+    private boolean checkCancel(CopyJob job) {
+        TaskControl control = job.getControl();
+        if (control.isCancelled()) {
+            if (!job.isStopped()) {
+                logger.info("Backup {} cancelado pelo usuário", job.getTaskId());
+            }
+            job.stop();
+            return false;
+        }
+        if (control.isPaused()) {
+            notifyPaused(job);
+        } else if (job.getPauseNotified().compareAndSet(true, false)) {
+            logger.info("Backup {} retomado após pausa", job.getTaskId());
+            progressPublisher.signal(new Progress(
+                    0,
+                    "Retomando backup...",
+                    job.getProcessed().get(),
+                    job.getTotalFiles(),
+                    job.getTaskId().toString()
+            ));
+        }
+        return !job.isStopped();
+    }
+
+    // Só o primeiro worker a detectar a pausa avisa os clientes
+    private void notifyPaused(CopyJob job) {
+        if (job.getPauseNotified().compareAndSet(false, true)) {
+            progressPublisher.signal(new Progress(
+                    0,
+                    "Backup pausado...",
+                    0,
+                    0,
+                    job.getTaskId().toString()
+            ));
+        }
+    }
+
+    // Monitor das transferências em blocos de um arquivo
+    private class FileMonitor implements TransferMonitor {
+
+        private final CopyJob job;
+        private final Path file;
+        private final String relativePath;
+
+        // Bytes já contabilizados durante a transferência deste arquivo
+        private long reported;
+
+        FileMonitor(CopyJob job, Path file, String relativePath) {
+            this.job = job;
+            this.file = file;
+            this.relativePath = relativePath;
+        }
+
+        @Override
+        public boolean onChunk(long bytes) {
+            reported += bytes;
+            job.getProcessedBytes().addAndGet(bytes);
+            job.getTransferredBytes().addAndGet(bytes);
+            sendProgress(job, file, job.getProcessed().get());
+            return checkPauseAndCancel(job);
+        }
+
+        @Override
+        public void onCheckpoint(long offset) {
+            try {
+                job.getJournal().chunkDone(relativePath, offset);
+            } catch (IOException e) {
+                logger.debug("Erro ao registrar bloco no diário: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public long resumeOffset() {
+            return job.getJournal().chunkOffset(relativePath);
+        }
+    }
+
+    private class CopyRange extends RecursiveAction {
+
+        private final CopyJob job;
+        private final List<ManifestEntry> files;
+        private final int from;
+        private final int to;
+        private final int batch;
+
+        CopyRange(CopyJob job, List<ManifestEntry> files, int from, int to, int batch) {
+            this.job = job;
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.batch = batch;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > batch) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new CopyRange(job, files, from, mid, batch),
+                        new CopyRange(job, files, mid, to, batch)
+                );
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                if (!checkPauseAndCancel(job)) {
+                    return;
+                }
+                copyFile(job, files.get(i));
+            }
+        }
+    }
+
+    // Estado compartilhado de uma cópia com vários destinos
+    private static class FanOut {
+
+        private final Path source;
+        private final List<CopyJob> jobs;
+        private final ExecutorService writers;
+
+        FanOut(Path source, List<CopyJob> jobs, ExecutorService writers) {
+            this.source = source;
+            this.jobs = jobs;
+            this.writers = writers;
+        }
+
+        /**
+         * Entrega o bloco a todos os destinos ainda ativos: o primeiro na própria thread, os demais
+         * em threads virtuais. Só retorna quando todos gravaram, pois o buffer é reaproveitado na
+         * próxima leitura. Um destino que falha é descartado (sink = null) e ganha um alerta.
+         */
+        void writeAll(List<CopyJob> jobs, List<FileSink> sinks, Path file, byte[] buffer, int length) {
+            List<Future<?>> pending = new ArrayList<>();
+            int inline = -1;
+            for (int i = 0; i < sinks.size(); i++) {
+                if (sinks.get(i) == null) {
+                    continue;
+                }
+                if (inline < 0) {
+                    inline = i;
+                    continue;
+                }
+                int index = i;
+                pending.add(writers.submit(() -> write(jobs, sinks, index, file, buffer, length)));
+            }
+            if (inline >= 0) {
+                write(jobs, sinks, inline, file, buffer, length);
+            }
+            for (Future<?> future : pending) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    logger.debug("Erro inesperado no fan-out: {}", e.getMessage());
+                }
+            }
+        }
+
+        private static void write(List<CopyJob> jobs, List<FileSink> sinks, int index, Path file,
+                                  byte[] buffer, int length) {
+            try {
+                sinks.get(index).write(buffer, length);
+            } catch (IOException e) {
+                sinks.get(index).abort();
+                sinks.set(index, null);
+                logFileWarning(jobs.get(index), file, e);
+            }
+        }
+    }
+
+    private class FanOutRange extends RecursiveAction {
+
+        private static final int BUFFER_SIZE = 1024 * 1024;
+
+        private final FanOut fanOut;
+        private final List<ManifestEntry> files;
+        private final int from;
+        private final int to;
+        private final int batch;
+
+        FanOutRange(FanOut fanOut, List<ManifestEntry> files, int from, int to, int batch) {
+            this.fanOut = fanOut;
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.batch = batch;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > batch) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new FanOutRange(fanOut, files, from, mid, batch),
+                        new FanOutRange(fanOut, files, mid, to, batch)
+                );
+                return;
+            }
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int i = from; i < to; i++) {
+                if (fanOut.jobs.stream().allMatch(CopyJob::isStopped)) {
+                    return;
+                }
+                copyFanOutFile(fanOut, files.get(i), buffer);
+            }
+        }
+    }
+}
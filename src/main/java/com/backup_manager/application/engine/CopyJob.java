@@ -0,0 +1,92 @@
+package com.backup_manager.application.engine;
+
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.ManifestEntry;
+import com.backup_manager.domain.model.SourceManifest;
+import com.backup_manager.domain.model.WarningCode;
+import com.backup_manager.domain.service.TaskControl;
+import com.backup_manager.infrastructure.logging.WarningLog;
+import com.backup_manager.infrastructure.storage.BackupJournal;
+import com.backup_manager.infrastructure.storage.CompressionStats;
+import com.backup_manager.infrastructure.storage.DestinationWriter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado compartilhado pelos workers que copiam uma mesma tarefa.
+ * Todos os contadores são thread-safe.
+ */
+@Getter
+public class CopyJob {
+
+    private final Long taskId;
+    private final Path source;
+    private final Path destination;
+    private final WarningLog warningLog;
+    private final int totalFiles;
+    private final long totalBytes;
+    private final BackupOptions options;
+
+    @Setter
+    private DestinationWriter writer;
+
+    @Setter
+    private BackupJournal journal;
+
+    @Setter
+    private TaskControl control;
+
+    private final AtomicInteger processed = new AtomicInteger();
+    // Avanço do progresso: inclui arquivos pulados (incremental, diário)
+    private final AtomicLong processedBytes = new AtomicLong();
+
+    // Só bytes realmente copiados nesta execução: base da vazão, do tempo restante e da compressão
+    private final AtomicLong transferredBytes = new AtomicLong();
+    private final AtomicLong copied = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicBoolean pauseNotified = new AtomicBoolean();
+    private final Set<Path> failedDirs = ConcurrentHashMap.newKeySet();
+
+    // Fan-out: arquivos que a leitura compartilhada entregou enquanto a tarefa estava pausada
+    private final Queue<ManifestEntry> deferred = new ConcurrentLinkedQueue<>();
+    private final CompressionStats compression = new CompressionStats();
+    private volatile boolean stopped;
+
+    public CopyJob(Long taskId, SourceManifest manifest, Path destination, BackupOptions options) {
+        this.taskId = taskId;
+        this.source = manifest.getRoot();
+        this.destination = destination;
+        this.warningLog = new WarningLog(destination.resolve(WarningLog.FILE_NAME));
+        this.totalFiles = (int) manifest.getFileCount();
+        this.totalBytes = manifest.getTotalBytes();
+        this.options = options;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isUnderFailedDir(Path target) {
+        if (failedDirs.isEmpty()) {
+            return false;
+        }
+        for (Path p = target.getParent(); p != null; p = p.getParent()) {
+            if (failedDirs.contains(p)) return true;
+        }
+        return false;
+    }
+
+    public void logWarning(WarningCode code, Path path, Throwable error) {
+        warningLog.warn(code, path, error);
+    }
+}
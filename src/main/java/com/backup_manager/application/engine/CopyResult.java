@@ -0,0 +1,30 @@
+package com.backup_manager.application.engine;
+
+import com.backup_manager.infrastructure.storage.CompressionStats;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+@Getter
+@AllArgsConstructor
+public class CopyResult {
+
+    private int warnings;
+    private long copiedFiles;
+    private long skippedFiles;
+    private long deletedFiles;
+    private boolean cancelled;
+    private long processedBytes;
+    private long transferredBytes;
+    private long elapsedMillis;
+    private CompressionStats compression;
+
+    // Vazão média da cópia inteira, só com os bytes copiados (pulados não contam)
+    public BigDecimal getMbPerSec() {
+        return BigDecimal.valueOf(transferredBytes)
+                .multiply(BigDecimal.valueOf(1000))
+                .divide(BigDecimal.valueOf(Math.max(1, elapsedMillis) * 1024L * 1024L), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,14 @@
+package com.backup_manager.application.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Resultado de um destino do fan-out: result ou error, nunca os dois
+@Getter
+@AllArgsConstructor
+public class FanOutResult {
+
+    private Long taskId;
+    private CopyResult result;
+    private Exception error;
+}
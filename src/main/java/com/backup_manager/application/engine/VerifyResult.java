@@ -0,0 +1,30 @@
+package com.backup_manager.application.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+@Getter
+@AllArgsConstructor
+public class VerifyResult {
+
+    private long verifiedFiles;
+
+    // Divergentes, ausentes no destino ou com erro de leitura
+    private long mismatches;
+
+    // Alterados na origem desde o backup
+    private long skippedFiles;
+
+    // Bytes de origem conferidos (o destino é lido na mesma quantidade)
+    private long bytes;
+    private long elapsedMillis;
+
+    public BigDecimal getMbPerSec() {
+        return BigDecimal.valueOf(bytes)
+                .multiply(BigDecimal.valueOf(1000))
+                .divide(BigDecimal.valueOf(Math.max(1, elapsedMillis) * 1024L * 1024L), 2, RoundingMode.HALF_UP);
+    }
+}
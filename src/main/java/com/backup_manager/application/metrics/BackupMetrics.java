@@ -0,0 +1,103 @@
+package com.backup_manager.application.metrics;
+
+import com.backup_manager.application.progress.ProgressEmitter;
+import com.backup_manager.application.service.BackupJobScheduler;
+import com.backup_manager.domain.model.WarningCode;
+import com.backup_manager.domain.service.BackupTaskManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas do pipeline de cópia, expostas em /actuator/prometheus. Todos os medidores são
+ * criados aqui, uma vez: quem copia só incrementa referências prontas, sem buscar medidor
+ * por nome/tag nem alocar por arquivo. Fila, tarefas ativas e clientes SSE são lidos dos
+ * próprios componentes na hora da coleta.
+ */
+@Component
+public class BackupMetrics {
+
+    private final Counter bytesCopied;
+    private final Counter filesCopied;
+    private final Counter filesSkipped;
+    private final Timer fileCopyTime;
+    private final Timer scanTime;
+    private final Map<WarningCode, Counter> warnings = new EnumMap<>(WarningCode.class);
+
+    public BackupMetrics(MeterRegistry registry, BackupJobScheduler jobScheduler, BackupTaskManager taskManager,
+                         ProgressEmitter progressEmitter) {
+        this.bytesCopied = Counter.builder("backup.copy.bytes")
+                .description("Bytes gravados de arquivos copiados")
+                .baseUnit("bytes")
+                .register(registry);
+        this.filesCopied = Counter.builder("backup.copy.files")
+                .description("Arquivos processados")
+                .tag("result", "copied")
+                .register(registry);
+        this.filesSkipped = Counter.builder("backup.copy.files")
+                .description("Arquivos processados")
+                .tag("result", "skipped")
+                .register(registry);
+        this.fileCopyTime = Timer.builder("backup.copy.file.duration")
+                .description("Tempo de cópia de cada arquivo")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(registry);
+        this.scanTime = Timer.builder("backup.scan.duration")
+                .description("Tempo de varredura da origem")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(registry);
+        for (WarningCode code : WarningCode.values()) {
+            warnings.put(code, Counter.builder("backup.warnings")
+                    .description("Alertas gravados no warnings.log, por tipo")
+                    .tag("code", code.name())
+                    .register(registry));
+        }
+
+        Gauge.builder("backup.jobs.queued", jobScheduler, BackupJobScheduler::getQueuedCount)
+                .description("Tarefas admitidas esperando vaga")
+                .register(registry);
+        Gauge.builder("backup.jobs.running", jobScheduler, BackupJobScheduler::getRunningCount)
+                .description("Tarefas ocupando vaga de execução")
+                .register(registry);
+        Gauge.builder("backup.tasks.active", taskManager, BackupTaskManager::getRunningCount)
+                .description("Tarefas registradas no gerenciador (em execução ou pausadas)")
+                .register(registry);
+        Gauge.builder("backup.sse.clients", progressEmitter, ProgressEmitter::getSubscriberCount)
+                .description("Clientes SSE conectados")
+                .register(registry);
+        FunctionCounter.builder("backup.sse.events.dropped", progressEmitter, ProgressEmitter::getDroppedEvents)
+                .description("Eventos descartados por fila de cliente cheia")
+                .register(registry);
+    }
+
+    public void fileCopied(long bytes, long elapsedNanos) {
+        filesCopied.increment();
+        bytesCopied.increment(bytes);
+        fileCopyTime.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void fileSkipped() {
+        filesSkipped.increment();
+    }
+
+    public void scanDone(long elapsedNanos) {
+        scanTime.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Chamado no fim da tarefa com a contagem do warnings.log
+    public void warnings(Map<WarningCode, Long> counts) {
+        counts.forEach((code, count) -> warnings.get(code).increment(count));
+    }
+}
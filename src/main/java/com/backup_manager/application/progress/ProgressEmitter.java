@@ -1,34 +1,105 @@
 package com.backup_manager.application.progress;
 
 import com.backup_manager.application.dto.Progress;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Canal SSE de progresso. Cada cliente pode assinar uma tarefa específica e tem
+ * sua própria fila limitada, esvaziada por uma thread virtual do dispatcher:
+ * um navegador lento só atrasa a si mesmo, nunca as cópias ou os outros clientes.
+ * Na fila, progresso novo substitui o anterior da mesma tarefa; se ela encher,
+ * o evento mais antigo é descartado.
+ *
+ * Todo evento leva um id crescente. Os últimos eventos de cada tarefa ficam em um
+ * buffer circular, e um cliente que reconecta com Last-Event-ID recebe o que perdeu.
+ */
 @Component
 public class ProgressEmitter {
 
     private static final Logger logger = LoggerFactory.getLogger(ProgressEmitter.class);
     private static final long DEFAULT_TIMEOUT = 1000L * 60 * 30; // 30 minutos
-    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+    private static final String PROGRESS_EVENT = "progress";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private final int queueCapacity;
+    private final int replaySize;
+    private final int replayTasks;
+
+    // Eventos que saíram de uma fila cheia sem ser enviados
+    private final LongAdder droppedEvents = new LongAdder();
+
+    // Protegidos por "this": numerar, guardar e enfileirar acontecem juntos
+    private long lastEventId;
+    private final Map<String, ReplayBuffer> replay;
+
+    public ProgressEmitter(
+            @Value("${backup.sse.queue-capacity:64}") int queueCapacity,
+            @Value("${backup.sse.replay-size:64}") int replaySize,
+            @Value("${backup.sse.replay-tasks:256}") int replayTasks
+    ) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.replaySize = Math.max(1, replaySize);
+        this.replayTasks = Math.max(1, replayTasks);
+        this.replay = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ReplayBuffer> eldest) {
+                return size() > ProgressEmitter.this.replayTasks;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
 
     public SseEmitter createEmitter() {
-        SseEmitter emitter = new SseEmitter(DEFAULT_TIMEOUT);
-        emitters.add(emitter);
+        return createEmitter(null, null);
+    }
+
+    /**
+     * @param taskId      tarefa assinada; nulo para receber eventos de todas
+     * @param lastEventId último id recebido antes da reconexão; nulo em uma conexão nova
+     */
+    public SseEmitter createEmitter(Long taskId, Long lastEventId) {
+        return register(new SseEmitter(DEFAULT_TIMEOUT), taskId, lastEventId);
+    }
+
+    // Separado de createEmitter para os testes passarem um emitter próprio
+    SseEmitter register(SseEmitter emitter, Long taskId, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, taskId != null ? taskId.toString() : null);
+        subscribe(subscriber, lastEventId);
 
         emitter.onTimeout(() -> {
             logger.debug("SSE Emitter timeout - client disconnected");
-            emitters.remove(emitter);
+            subscribers.remove(subscriber);
         });
 
         emitter.onCompletion(() -> {
             logger.debug("SSE Emitter completed normally");
-            emitters.remove(emitter);
+            subscribers.remove(subscriber);
         });
 
         emitter.onError((e) -> {
@@ -38,25 +109,37 @@ public class ProgressEmitter {
             } else {
                 logger.error("SSE Emitter error: {}", e.getMessage(), e);
             }
-            emitters.remove(emitter);
+            subscribers.remove(subscriber);
         });
 
         return emitter;
     }
 
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
     public void sendProgress(Progress progress) {
         String payload = createProgressPayload(progress);
-        sendEvent("progress", payload);
+        sendEvent(PROGRESS_EVENT, progress.getTaskId(), payload);
     }
 
     public void sendComplete(String message) {
         String payload = String.format("{\"message\":\"%s\"}", escapeJson(message));
-        sendEvent("complete", payload);
+        sendEvent("complete", null, payload);
     }
 
     public void sendError(String error) {
+        sendError(null, error);
+    }
+
+    public void sendError(Long taskId, String error) {
         String payload = String.format("{\"error\":\"%s\"}", escapeJson(error));
-        sendEvent("error", payload);
+        sendEvent("error", taskId != null ? taskId.toString() : null, payload);
     }
 
     // Método para enviar eventos de controle
@@ -65,26 +148,163 @@ public class ProgressEmitter {
                 "{\"type\":\"%s\",\"taskId\":%d,\"status\":\"%s\",\"timestamp\":%d}",
                 escapeJson(eventType), taskId, escapeJson(status), System.currentTimeMillis()
         );
-        sendEvent("control", payload);
+        sendEvent("control", taskId.toString(), payload);
+    }
+
+    // Só enfileira; o envio acontece no dispatcher
+    private synchronized void sendEvent(String eventName, String taskId, String data) {
+        Event event = new Event(++lastEventId, eventName, taskId, data);
+        replay.computeIfAbsent(Objects.requireNonNullElse(taskId, ""), k -> new ReplayBuffer(replaySize))
+                .add(event);
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(event)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    // Junto com sendEvent, para que nenhum evento fique entre o replay e a assinatura
+    private synchronized void subscribe(Subscriber subscriber, Long lastEventId) {
+        if (lastEventId != null) {
+            List<Event> missed = new ArrayList<>();
+            for (ReplayBuffer buffer : replay.values()) {
+                buffer.collectAfter(lastEventId, subscriber, missed);
+            }
+            missed.sort(Comparator.comparingLong(e -> e.id));
+            logger.debug("Reenviando {} evento(s) após o id {}", missed.size(), lastEventId);
+            missed.forEach(subscriber::offer);
+        }
+        subscribers.add(subscriber);
+    }
+
+    private static final class Event {
+
+        private final long id;
+        private final String name;
+        private final String taskId;
+        private final String data;
+
+        Event(long id, String name, String taskId, String data) {
+            this.id = id;
+            this.name = name;
+            this.taskId = taskId;
+            this.data = data;
+        }
+
+        boolean replaces(Event other) {
+            return PROGRESS_EVENT.equals(name) && PROGRESS_EVENT.equals(other.name)
+                    && Objects.equals(taskId, other.taskId);
+        }
     }
 
-    // Método genérico para enviar eventos
-    private void sendEvent(String eventName, String data) {
-        if (emitters.isEmpty()) {
-            return;
+    /**
+     * Últimos eventos de controle de uma tarefa e o progresso mais recente dela
+     * (guardado à parte para não expulsar start/complete/error do buffer).
+     */
+    private static final class ReplayBuffer {
+
+        private final int capacity;
+        private final Deque<Event> events = new ArrayDeque<>();
+        private Event lastProgress;
+
+        ReplayBuffer(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void add(Event event) {
+            if (PROGRESS_EVENT.equals(event.name)) {
+                lastProgress = event;
+                return;
+            }
+            if (events.size() >= capacity) {
+                events.pollFirst();
+            }
+            events.addLast(event);
+        }
+
+        void collectAfter(long lastEventId, Subscriber subscriber, List<Event> out) {
+            for (Event event : events) {
+                if (event.id > lastEventId && subscriber.accepts(event)) {
+                    out.add(event);
+                }
+            }
+            if (lastProgress != null && lastProgress.id > lastEventId && subscriber.accepts(lastProgress)) {
+                out.add(lastProgress);
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String taskId;
+        private final Deque<Event> queue = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, String taskId) {
+            this.emitter = emitter;
+            this.taskId = taskId;
         }
 
-        Set<SseEmitter> deadEmitters = ConcurrentHashMap.newKeySet();
+        // Eventos sem tarefa (ex.: erros gerais) vão para todos
+        boolean accepts(Event event) {
+            return taskId == null || event.taskId == null || taskId.equals(event.taskId);
+        }
+
+        void offer(Event event) {
+            synchronized (queue) {
+                // Progresso ainda não enviado da mesma tarefa é substituído, sem passar à frente de controles
+                Event last = queue.peekLast();
+                if (last != null && event.replaces(last)) {
+                    queue.pollLast();
+                } else if (queue.size() >= queueCapacity) {
+                    queue.pollFirst();
+                    droppedEvents.increment();
+                }
+                queue.addLast(event);
+            }
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private Event poll() {
+            synchronized (queue) {
+                return queue.pollFirst();
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (!closed && (event = poll()) != null) {
+                    send(event);
+                }
+            } finally {
+                draining.set(false);
+                // Evento chegou entre o último poll e a liberação da flag
+                boolean pending;
+                synchronized (queue) {
+                    pending = !queue.isEmpty();
+                }
+                if (pending && !closed && draining.compareAndSet(false, true)) {
+                    dispatcher.execute(this::drain);
+                }
+            }
+        }
 
-        for (SseEmitter emitter : emitters) {
+        private void send(Event event) {
             try {
                 emitter.send(SseEmitter.event()
-                        .name(eventName)
-                        .data(data));
+                        .id(Long.toString(event.id))
+                        .name(event.name)
+                        .data(event.data));
 
                 if (logger.isDebugEnabled()) {
-                    logger.debug("SSE event '{}' sent to client: {}...",
-                            eventName, data.length() > 50 ? data.substring(0, 50) + "..." : data);
+                    logger.debug("SSE event '{}' sent to client: {}...", event.name,
+                            event.data.length() > 50 ? event.data.substring(0, 50) + "..." : event.data);
                 }
             } catch (IOException e) {
 
@@ -93,21 +313,22 @@ public class ProgressEmitter {
                 } else {
                     logger.warn("SSE IOException: {}", e.getMessage());
                 }
-                deadEmitters.add(emitter);
+                close();
             } catch (IllegalStateException e) {
 
                 logger.debug("SSE emitter in illegal state (probably completed): {}", e.getMessage());
-                deadEmitters.add(emitter);
+                close();
             } catch (Exception e) {
 
                 logger.warn("Unexpected error sending SSE event: {}", e.getMessage());
-                deadEmitters.add(emitter);
+                close();
             }
         }
 
-        if (!deadEmitters.isEmpty()) {
-            emitters.removeAll(deadEmitters);
-            logger.debug("Removed {} disconnected SSE emitters", deadEmitters.size());
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            logger.debug("Removed disconnected SSE emitter");
         }
     }
 
@@ -147,14 +368,24 @@ public class ProgressEmitter {
         return false;
     }
 
+    // Vazão e tempo restante saem como null até o publicador ter amostras
     private String createProgressPayload(Progress progress) {
         return String.format(
-                "{\"percent\":%d,\"currentFile\":\"%s\",\"processedFiles\":%d,\"totalFiles\":%d,\"taskId\":\"%s\"}",
+                "{\"percent\":%d,\"currentFile\":\"%s\",\"processedFiles\":%d,\"totalFiles\":%d,\"taskId\":\"%s\","
+                        + "\"processedBytes\":%d,\"transferredBytes\":%d,\"totalBytes\":%d,\"filesPercent\":%d,"
+                        + "\"mbPerSec\":%s,\"avgMbPerSec\":%s,\"etaSeconds\":%s}",
                 progress.getPercent(),
                 escapeJson(progress.getCurrentFile()),
                 progress.getProcessedFiles(),
                 progress.getTotalFiles(),
-                escapeJson(progress.getTaskId())
+                escapeJson(progress.getTaskId()),
+                progress.getProcessedBytes(),
+                progress.getTransferredBytes(),
+                progress.getTotalBytes(),
+                progress.getFilesPercent(),
+                progress.getMbPerSec() != null ? progress.getMbPerSec().toPlainString() : "null",
+                progress.getAvgMbPerSec() != null ? progress.getAvgMbPerSec().toPlainString() : "null",
+                progress.getEtaSeconds()
         );
     }
 
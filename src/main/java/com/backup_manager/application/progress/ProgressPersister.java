@@ -0,0 +1,93 @@
+package com.backup_manager.application.progress;
+
+import com.backup_manager.application.dto.Progress;
+import com.backup_manager.domain.model.TaskProgressSnapshot;
+import com.backup_manager.infrastructure.persistence.BackupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leva o progresso das tarefas em execução para o banco. As threads de cópia só guardam o
+ * último estado de cada tarefa; a cada {@code backup.progress.persist-interval-ms} o que mudou
+ * desde a última gravação vai em um único lote JDBC, para todas as tarefas juntas.
+ */
+@Component
+public class ProgressPersister {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgressPersister.class);
+
+    private final BackupRepository backupRepository;
+    private final Map<Long, TaskProgressSnapshot> pending = new ConcurrentHashMap<>();
+
+    // Ordena o lote periódico e a gravação final de uma tarefa
+    private final Object writeLock = new Object();
+
+    public ProgressPersister(BackupRepository backupRepository) {
+        this.backupRepository = backupRepository;
+    }
+
+    public void record(Progress progress) {
+        Long taskId = Long.valueOf(progress.getTaskId());
+        pending.put(taskId, new TaskProgressSnapshot(
+                taskId,
+                progress.getProcessedFiles(),
+                progress.getTotalFiles(),
+                progress.getProcessedBytes(),
+                progress.getTotalBytes(),
+                progress.getMbPerSec(),
+                progress.getAvgMbPerSec(),
+                progress.getEtaSeconds(),
+                LocalDateTime.now()
+        ));
+    }
+
+    @Scheduled(
+            initialDelayString = "${backup.progress.persist-interval-ms:5000}",
+            fixedDelayString = "${backup.progress.persist-interval-ms:5000}"
+    )
+    public void flushAll() {
+        synchronized (writeLock) {
+            List<TaskProgressSnapshot> batch = new ArrayList<>(pending.size());
+            for (Long taskId : pending.keySet()) {
+                TaskProgressSnapshot snapshot = pending.remove(taskId);
+                if (snapshot != null) {
+                    batch.add(snapshot);
+                }
+            }
+            write(batch);
+        }
+    }
+
+    /**
+     * Grava na hora o último estado da tarefa e a esquece. Chamado no fim da cópia,
+     * antes de a tarefa mudar de status.
+     */
+    public void flush(Long taskId) {
+        synchronized (writeLock) {
+            TaskProgressSnapshot snapshot = pending.remove(taskId);
+            if (snapshot != null) {
+                write(List.of(snapshot));
+            }
+        }
+    }
+
+    private void write(List<TaskProgressSnapshot> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            backupRepository.updateProgress(batch);
+        } catch (Exception e) {
+            // Perde só este ciclo; o próximo estado de cada tarefa vai no lote seguinte
+            logger.warn("Erro ao gravar progresso de {} tarefa(s): {}", batch.size(), e.getMessage());
+        }
+    }
+}
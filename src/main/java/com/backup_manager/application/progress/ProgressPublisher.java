@@ -0,0 +1,152 @@
+package com.backup_manager.application.progress;
+
+import com.backup_manager.application.dto.Progress;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Agrega o progresso das tarefas e publica no {@link ProgressEmitter} em uma thread própria;
+ * o mesmo estado segue para o {@link ProgressPersister}, que grava no banco em intervalos maiores.
+ * As threads de cópia só guardam o último estado (o mais recente vence); a publicação
+ * acontece a cada {@code backup.progress.interval-ms} ou antes, quando o percentual
+ * avança {@code backup.progress.percent-delta} pontos. Cada publicação é uma amostra do
+ * {@link ThroughputEstimator} da tarefa, que acrescenta vazão e tempo restante ao progresso.
+ */
+@Component
+public class ProgressPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgressPublisher.class);
+
+    private final ProgressEmitter progressEmitter;
+    private final ProgressPersister progressPersister;
+    private final long intervalNanos;
+    private final int percentDelta;
+    private final long etaWindowNanos;
+    private final Map<String, TaskProgress> tasks = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ProgressPublisher(
+            ProgressEmitter progressEmitter,
+            ProgressPersister progressPersister,
+            @Value("${backup.progress.interval-ms:500}") long intervalMs,
+            @Value("${backup.progress.percent-delta:5}") int percentDelta,
+            @Value("${backup.progress.eta-window-ms:10000}") long etaWindowMs
+    ) {
+        this.progressEmitter = progressEmitter;
+        this.progressPersister = progressPersister;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(10, intervalMs));
+        this.percentDelta = percentDelta;
+        this.etaWindowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1000, etaWindowMs));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("progress-publisher").daemon().start(this::loop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Registra o estado atual da tarefa. Não faz I/O; pode ser chamado a cada arquivo.
+     */
+    public void update(Progress progress) {
+        TaskProgress state = tasks.computeIfAbsent(progress.getTaskId(), k -> new TaskProgress());
+        state.pending.set(progress);
+        if (percentDelta > 0 && progress.getPercent() - state.lastPercent >= percentDelta) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Como {@link #update}, mas acorda o publicador na hora (pausa, retomada).
+     */
+    public void signal(Progress progress) {
+        TaskProgress state = tasks.computeIfAbsent(progress.getTaskId(), k -> new TaskProgress());
+        // Medição anterior ao aviso já não vale; a posterior sai depois dele
+        state.pending.set(null);
+        state.signal.set(progress);
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Publica o que estiver pendente na thread atual e esquece a tarefa.
+     * Chamado no fim da cópia, antes dos eventos de conclusão.
+     */
+    public void flush(Long taskId) {
+        TaskProgress state = tasks.remove(taskId.toString());
+        if (state != null) {
+            state.publish();
+        }
+        progressPersister.flush(taskId);
+    }
+
+    private void loop() {
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            for (TaskProgress state : tasks.values()) {
+                try {
+                    state.publish();
+                } catch (Exception e) {
+                    logger.warn("Erro ao publicar progresso: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private class TaskProgress {
+
+        private final AtomicReference<Progress> pending = new AtomicReference<>();
+
+        // Aviso de pausa/retomada: não é medição, por isso fica fora de pending
+        private final AtomicReference<Progress> signal = new AtomicReference<>();
+
+        private final ThroughputEstimator estimator = new ThroughputEstimator(etaWindowNanos);
+        private volatile int lastPercent;
+
+        // Sincronizado para que flush e o publicador não enviem fora de ordem
+        synchronized void publish() {
+            Progress signalled = signal.getAndSet(null);
+            if (signalled != null) {
+                estimator.reset();
+                lastPercent = signalled.getPercent();
+                progressEmitter.sendProgress(signalled);
+            }
+            Progress progress = pending.getAndSet(null);
+            if (progress == null) {
+                return;
+            }
+            estimate(progress);
+            progressPersister.record(progress);
+            lastPercent = progress.getPercent();
+            progressEmitter.sendProgress(progress);
+        }
+
+        private void estimate(Progress progress) {
+            // Vazão só com bytes copiados: arquivos pulados avançariam o contador sem I/O
+            estimator.sample(System.nanoTime(), progress.getTransferredBytes());
+            if (!estimator.hasRate()) {
+                return;
+            }
+            progress.setMbPerSec(estimator.instantMbPerSec());
+            progress.setAvgMbPerSec(estimator.windowMbPerSec());
+            progress.setEtaSeconds(estimator.etaSeconds(progress.getTotalBytes() - progress.getProcessedBytes()));
+        }
+    }
+}
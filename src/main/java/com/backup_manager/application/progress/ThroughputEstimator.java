@@ -0,0 +1,69 @@
+package com.backup_manager.application.progress;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+
+/**
+ * Vazão de uma tarefa a partir de amostras (instante, bytes processados). A instantânea compara
+ * com a amostra anterior; a suavizada, com a mais antiga dentro da janela, e é a que estima o
+ * tempo restante. Não é thread-safe: só o publicador da tarefa a alimenta.
+ */
+class ThroughputEstimator {
+
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    private final long windowNanos;
+    private final ArrayDeque<long[]> samples = new ArrayDeque<>();
+    private double instantBytesPerSec;
+    private double windowBytesPerSec;
+
+    ThroughputEstimator(long windowNanos) {
+        this.windowNanos = windowNanos;
+    }
+
+    void sample(long nanos, long bytes) {
+        long[] last = samples.peekLast();
+        if (last != null && nanos > last[0]) {
+            instantBytesPerSec = (bytes - last[1]) * 1e9 / (nanos - last[0]);
+        }
+        samples.addLast(new long[]{nanos, bytes});
+        while (samples.size() > 2 && nanos - samples.peekFirst()[0] > windowNanos) {
+            samples.pollFirst();
+        }
+
+        long[] first = samples.peekFirst();
+        windowBytesPerSec = nanos > first[0] ? (bytes - first[1]) * 1e9 / (nanos - first[0]) : 0;
+    }
+
+    // Pausa e retomada: as amostras anteriores não valem para a nova vazão
+    void reset() {
+        samples.clear();
+        instantBytesPerSec = 0;
+        windowBytesPerSec = 0;
+    }
+
+    boolean hasRate() {
+        return samples.size() > 1;
+    }
+
+    BigDecimal instantMbPerSec() {
+        return toMb(instantBytesPerSec);
+    }
+
+    BigDecimal windowMbPerSec() {
+        return toMb(windowBytesPerSec);
+    }
+
+    // Nulo enquanto a janela não tiver vazão
+    Long etaSeconds(long remainingBytes) {
+        if (windowBytesPerSec <= 0) {
+            return null;
+        }
+        return (long) Math.ceil(Math.max(0, remainingBytes) / windowBytesPerSec);
+    }
+
+    private static BigDecimal toMb(double bytesPerSec) {
+        return BigDecimal.valueOf(Math.max(0, bytesPerSec) / BYTES_PER_MB).setScale(2, RoundingMode.HALF_UP);
+    }
+}
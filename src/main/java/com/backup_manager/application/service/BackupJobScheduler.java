@@ -0,0 +1,213 @@
+package com.backup_manager.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agenda as tarefas de backup: no máximo {@code backup.jobs.max-concurrent} rodam ao mesmo tempo
+ * e até {@code backup.jobs.queue-capacity} aguardam na fila (status NA_FILA), em ordem de chegada.
+ * Cada tarefa roda em uma thread virtual, que fica bloqueada barata enquanto espera a vez.
+ *
+ * Além do limite global, cada volume ({@link FileStore}) de origem ou destino aceita no máximo
+ * {@code backup.jobs.per-store-limit} tarefas ao mesmo tempo (ajustável por volume em
+ * {@code backup.jobs.store-limits}, ex.: "/dev/sdb1=1,nas:/backup=2"). Tarefas em discos
+ * independentes rodam em paralelo; as que disputam o mesmo disco esperam a vez sem ocupar
+ * vaga global.
+ */
+@Component
+public class BackupJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupJobScheduler.class);
+
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final Semaphore running;
+
+    // Vagas ocupadas: tarefas rodando + na fila
+    private final AtomicInteger admitted = new AtomicInteger();
+
+    private final int perStoreLimit;
+    private final Map<String, Integer> storeLimits;
+    private final Map<FileStore, StoreSlot> stores = new ConcurrentHashMap<>();
+    private final AtomicInteger storeOrder = new AtomicInteger();
+
+    public BackupJobScheduler(
+            @Value("${backup.jobs.max-concurrent:4}") int maxConcurrent,
+            @Value("${backup.jobs.queue-capacity:16}") int queueCapacity,
+            @Value("${backup.jobs.per-store-limit:2}") int perStoreLimit,
+            @Value("${backup.jobs.store-limits:}") String storeLimits
+    ) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.running = new Semaphore(this.maxConcurrent, true);
+        this.perStoreLimit = perStoreLimit;
+        this.storeLimits = parseStoreLimits(storeLimits);
+    }
+
+    /**
+     * Reserva uma vaga para uma nova tarefa.
+     *
+     * @return false se já há {@code max-concurrent + queue-capacity} tarefas admitidas
+     */
+    public boolean tryAdmit() {
+        return tryAdmit(1);
+    }
+
+    /**
+     * Reserva {@code count} vagas de uma vez: todas ou nenhuma.
+     */
+    public boolean tryAdmit(int count) {
+        int limit = maxConcurrent + queueCapacity;
+        while (true) {
+            int current = admitted.get();
+            if (current + count > limit) {
+                return false;
+            }
+            if (admitted.compareAndSet(current, current + count)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reserva uma vaga ignorando o limite, para tarefas que já existiam (retomadas).
+     */
+    public void admit() {
+        admitted.incrementAndGet();
+    }
+
+    // Devolve uma vaga reservada que não chegou a ser submetida
+    public void release() {
+        release(1);
+    }
+
+    public void release(int count) {
+        admitted.addAndGet(-count);
+    }
+
+    /**
+     * Coloca na fila uma tarefa cuja vaga já foi reservada.
+     *
+     * @param paths origem e destino da tarefa, para limitar a concorrência por volume
+     */
+    public void submit(Long taskId, List<Path> paths, Runnable job) {
+        Thread.ofVirtual().name("backup-job-" + taskId).start(() -> {
+            // Sempre na mesma ordem (volumes, depois vaga global) para não haver deadlock
+            List<Semaphore> acquired = new ArrayList<>();
+            try {
+                for (StoreSlot slot : slotsFor(paths)) {
+                    slot.permits.acquire();
+                    acquired.add(slot.permits);
+                }
+                running.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired.forEach(Semaphore::release);
+                admitted.decrementAndGet();
+                return;
+            }
+
+            try {
+                job.run();
+            } catch (Exception e) {
+                logger.error("Erro não tratado na tarefa {}: {}", taskId, e.getMessage(), e);
+            } finally {
+                running.release();
+                acquired.forEach(Semaphore::release);
+                admitted.decrementAndGet();
+            }
+        });
+    }
+
+    public int getRunningCount() {
+        return maxConcurrent - running.availablePermits();
+    }
+
+    public int getQueuedCount() {
+        return Math.max(0, admitted.get() - getRunningCount());
+    }
+
+    private List<StoreSlot> slotsFor(List<Path> paths) {
+        if (perStoreLimit <= 0) {
+            return List.of();
+        }
+        List<StoreSlot> slots = new ArrayList<>();
+        for (Path path : paths) {
+            FileStore store = fileStoreOf(path);
+            if (store == null) {
+                continue;
+            }
+            StoreSlot slot = stores.computeIfAbsent(store, this::newSlot);
+            if (!slots.contains(slot)) {
+                slots.add(slot);
+            }
+        }
+        slots.sort(Comparator.comparingInt(slot -> slot.order));
+        return slots;
+    }
+
+    private StoreSlot newSlot(FileStore store) {
+        int limit = storeLimits.getOrDefault(store.name(), perStoreLimit);
+        logger.info("Volume {} ({}): até {} tarefa(s) simultânea(s)", store.name(), store.type(), limit);
+        return new StoreSlot(storeOrder.getAndIncrement(), new Semaphore(Math.max(1, limit), true));
+    }
+
+    // O destino pode ainda não existir: usa o ancestral mais próximo que existe
+    private static FileStore fileStoreOf(Path path) {
+        for (Path p = path.toAbsolutePath(); p != null; p = p.getParent()) {
+            if (Files.exists(p)) {
+                try {
+                    return Files.getFileStore(p);
+                } catch (IOException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Integer> parseStoreLimits(String spec) {
+        Map<String, Integer> limits = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return limits;
+        }
+        for (String item : spec.split(",")) {
+            int eq = item.lastIndexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            try {
+                limits.put(item.substring(0, eq).trim(), Integer.parseInt(item.substring(eq + 1).trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Limite de volume ignorado: {}", item);
+            }
+        }
+        return limits;
+    }
+
+    private static final class StoreSlot {
+
+        private final int order;
+        private final Semaphore permits;
+
+        StoreSlot(int order, Semaphore permits) {
+            this.order = order;
+            this.permits = permits;
+        }
+    }
+}
@@ -1,34 +1,51 @@
 package com.backup_manager.application.service;
 
+import com.backup_manager.application.dto.BackupResponse;
+import com.backup_manager.application.dto.HistoryPage;
 import com.backup_manager.application.dto.Progress;
+import com.backup_manager.application.engine.CopyEngine;
+import com.backup_manager.application.engine.CopyResult;
+import com.backup_manager.application.engine.BackupVerifier;
+import com.backup_manager.application.engine.VerifyResult;
+import com.backup_manager.application.metrics.BackupMetrics;
 import com.backup_manager.application.progress.ProgressEmitter;
+import com.backup_manager.domain.exception.ActiveTaskConflictException;
+import com.backup_manager.domain.exception.JobQueueFullException;
+import com.backup_manager.domain.model.BackupOptions;
 import com.backup_manager.domain.model.BackupTask;
+import com.backup_manager.domain.model.SourceManifest;
 import com.backup_manager.domain.model.Status;
+import com.backup_manager.domain.service.ActivePairRegistry;
 import com.backup_manager.domain.service.BackupManager;
 import com.backup_manager.domain.service.BackupTaskManager;
+import com.backup_manager.domain.service.SourceScanner;
 import com.backup_manager.infrastructure.logging.BackupContext;
+import com.backup_manager.infrastructure.persistence.BackupOptionsJson;
 import com.backup_manager.infrastructure.persistence.BackupRepository;
-import jakarta.annotation.PostConstruct;
+import com.backup_manager.infrastructure.persistence.HistoryFilter;
+import com.backup_manager.infrastructure.storage.CompressionStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.nio.file.*;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-@EnableAsync
 public class BackupService {
 
     private final BackupManager backupManager;
@@ -36,28 +53,47 @@ public class BackupService {
     private final BackupContext backupContext;
     private final ProgressEmitter progressEmitter;
     private final BackupTaskManager taskManager;
+    private final SourceScanner sourceScanner;
+    private final CopyEngine copyEngine;
+    private final BackupJobScheduler jobScheduler;
+    private final BackupVerifier backupVerifier;
+    private final ActivePairRegistry activePairs;
+    private final BackupMetrics metrics;
+    private final boolean autoResume;
 
-    private ExecutorService executor;
+    // Tarefas com verificação em andamento
+    private final Set<Long> verifying = ConcurrentHashMap.newKeySet();
 
     private static final Logger logger = LoggerFactory.getLogger(BackupService.class);
 
+    private static final String OPTIONS_LOST = "Opções da tarefa não puderam ser restauradas após reinício";
+
     public BackupService(
             BackupManager backupManager,
             BackupRepository backupRepository,
             BackupContext backupContext,
             ProgressEmitter progressEmitter,
-            BackupTaskManager taskManager
+            BackupTaskManager taskManager,
+            SourceScanner sourceScanner,
+            CopyEngine copyEngine,
+            BackupJobScheduler jobScheduler,
+            BackupVerifier backupVerifier,
+            ActivePairRegistry activePairs,
+            BackupMetrics metrics,
+            @Value("${backup.recovery.auto-resume:true}") boolean autoResume
     ) {
         this.backupManager = backupManager;
         this.backupRepository = backupRepository;
         this.backupContext = backupContext;
         this.progressEmitter = progressEmitter;
         this.taskManager = taskManager;
-    }
-
-    @PostConstruct
-    public void init() {
-        this.executor = Executors.newFixedThreadPool(4);
+        this.sourceScanner = sourceScanner;
+        this.copyEngine = copyEngine;
+        this.jobScheduler = jobScheduler;
+        this.backupVerifier = backupVerifier;
+        this.activePairs = activePairs;
+        this.metrics = metrics;
+        this.autoResume = autoResume;
     }
 
     public void validateDestination(String destination) {
@@ -67,354 +103,464 @@ public class BackupService {
     public void startMultipleBackups(List<String> sources, String destination) {
         validateDestination(destination);
         for (String source : sources) {
-            executor.submit(() -> runBackup(source, destination));
+            runBackup(source, destination);
         }
     }
 
-    @Async
-    public void runBackup(String sourcePath, String destinationPath) {
+    public BackupTask runBackup(String sourcePath, String destinationPath) {
+        return runBackup(sourcePath, destinationPath, BackupOptions.defaults());
+    }
+
+    /**
+     * Cria a tarefa com status NA_FILA e a entrega ao {@link BackupJobScheduler}.
+     *
+     * @throws ActiveTaskConflictException se o par já tiver uma tarefa ativa (nada é gravado)
+     * @throws JobQueueFullException se a fila estiver cheia (nada é gravado)
+     */
+    public BackupTask runBackup(String sourcePath, String destinationPath, BackupOptions options) {
+        return runBatch(List.of(sourcePath), List.of(destinationPath), options).get(0);
+    }
+
+    /**
+     * Cria uma tarefa NA_FILA por par (sourcePaths[i] → destinationPaths[i]), gravadas em um único
+     * lote, e entrega cada uma ao {@link BackupJobScheduler}. Todas ou nenhuma: se algum par estiver
+     * ocupado ou não houver vaga para todas, nada é gravado.
+     *
+     * @throws ActiveTaskConflictException se algum par já tiver uma tarefa ativa
+     * @throws JobQueueFullException se a fila não comportar o lote
+     */
+    public List<BackupTask> runBatch(List<String> sourcePaths, List<String> destinationPaths, BackupOptions options) {
+        List<BackupTask> tasks = new ArrayList<>(sourcePaths.size());
+        for (int i = 0; i < sourcePaths.size(); i++) {
+            tasks.add(newQueuedTask(sourcePaths.get(i), destinationPaths.get(i), options));
+        }
+        insertQueued(tasks, tasks.size());
+        logger.info("{} tarefa(s) salva(s) no banco: IDs={}", tasks.size(),
+                tasks.stream().map(BackupTask::getId).toList());
+
+        for (BackupTask task : tasks) {
+            Long taskId = task.getId();
+            jobScheduler.submit(taskId, volumesOf(task), () -> startQueued(taskId, options));
+        }
+        return tasks;
+    }
+
+    private static BackupTask newQueuedTask(String sourcePath, String destinationPath, BackupOptions options) {
         BackupTask task = new BackupTask();
         task.setSourcePath(sourcePath);
         task.setDestinationPath(destinationPath);
+        task.setDestinationFormat(options.getFormat());
+        task.setOptionsJson(BackupOptionsJson.write(options));
+        task.setStatus(Status.NA_FILA);
+        return task;
+    }
+
+    // Reserva pares e vagas e grava o lote; em qualquer falha nada fica reservado
+    private void insertQueued(List<BackupTask> tasks, int slots) {
+        activePairs.claim(tasks);
+        if (!jobScheduler.tryAdmit(slots)) {
+            activePairs.unclaim(tasks);
+            throw new JobQueueFullException();
+        }
+        try {
+            backupRepository.insertQueued(tasks);
+        } catch (RuntimeException e) {
+            activePairs.unclaim(tasks);
+            jobScheduler.release(slots);
+            throw e;
+        }
+        activePairs.bind(tasks);
+    }
+
+    private void startQueued(Long taskId, BackupOptions options) {
+        // Recarrega: a tarefa pode ter sido cancelada enquanto esperava na fila
+        BackupTask task = backupRepository.findById(taskId).orElse(null);
+        if (task == null || task.getStatus() != Status.NA_FILA) {
+            logger.info("Tarefa {} saiu da fila sem executar", taskId);
+            return;
+        }
+
+        task.setStatus(Status.EM_ANDAMENTO);
         task.setStartedAt(LocalDateTime.now());
+        execute(backupRepository.save(task), options);
+    }
+
+    /**
+     * Tarefas que ficaram EM_ANDAMENTO após uma queda da aplicação são retomadas pelo diário
+     * (ou marcadas como FALHA, se a retomada automática estiver desligada).
+     * Tarefas pausadas continuam pausadas e voltam a rodar pelo endpoint /resume.
+     */
+    public void recoverInterruptedTasks() {
+        List<BackupTask> orphans = new ArrayList<>(
+                backupRepository.findByStatusIn(List.of(Status.EM_ANDAMENTO, Status.NA_FILA)));
+        orphans.sort(Comparator.comparing(BackupTask::getId));
+
+        for (BackupTask task : orphans) {
+            if (taskManager.isRegistered(task.getId())) {
+                continue;
+            }
+            if (task.getStatus() == Status.NA_FILA) {
+                // Ainda não tinha começado: volta para a fila com as opções gravadas
+                Optional<BackupOptions> options = optionsFor(task);
+                if (options.isEmpty()) {
+                    failUnrecoverable(task, OPTIONS_LOST);
+                    continue;
+                }
+                jobScheduler.admit();
+                jobScheduler.submit(task.getId(), volumesOf(task), () -> startQueued(task.getId(), options.get()));
+            } else if (autoResume) {
+                logger.info("Retomando tarefa interrompida: ID={}, Origem={}", task.getId(), task.getSourcePath());
+                jobScheduler.admit();
+                jobScheduler.submit(task.getId(), volumesOf(task), () -> resumeInterrupted(task));
+            } else {
+                failUnrecoverable(task, "Interrompido por reinício da aplicação");
+            }
+        }
+    }
+
+    private void resumeInterrupted(BackupTask task) {
+        Optional<BackupOptions> options = optionsFor(task);
+        if (options.isEmpty()) {
+            failUnrecoverable(task, OPTIONS_LOST);
+            return;
+        }
+
         task.setStatus(Status.EM_ANDAMENTO);
+        task.setPaused(false);
+        task.setCancelled(false);
+        task.setFinishedAt(null);
+        execute(backupRepository.save(task), options.get());
+    }
+
+    private void failUnrecoverable(BackupTask task, String reason) {
+        logger.warn("Tarefa {} não pode ser retomada: {}", task.getId(), reason);
+        task.setStatus(Status.FALHA);
+        task.setErrorMessage(reason);
+        task.setFinishedAt(LocalDateTime.now());
+        backupRepository.save(task);
+        activePairs.release(task);
+    }
+
+    private static List<Path> volumesOf(BackupTask task) {
+        return List.of(Paths.get(task.getSourcePath()), Paths.get(task.getDestinationPath()));
+    }
 
-        // SALVA NO BANCO PRIMEIRO
-        task = backupRepository.save(task);
-        logger.info("Tarefa salva no banco: ID={}, Status={}", task.getId(), task.getStatus());
+    /**
+     * Opções gravadas ao enfileirar. Sem elas a tarefa não é retomada com opções padrão,
+     * que poderiam ignorar filtros ou apagar arquivos do destino.
+     */
+    private Optional<BackupOptions> optionsFor(BackupTask task) {
+        return BackupOptionsJson.read(task.getOptionsJson());
+    }
+
+    private void execute(BackupTask task, BackupOptions options) {
+        begin(task);
+        try {
+            SourceManifest manifest = scan(task.getSourcePath(), options);
+            Path destination = prepareDestination(task, manifest);
+
+            CopyResult result = copyEngine.copy(manifest, destination, task.getId(), options);
+            finish(task, manifest, result, options);
+        } catch (Exception e) {
+            fail(task, e);
+        } finally {
+            end(task);
+        }
+    }
+
+    /**
+     * Fan-out: a origem é varrida e lida uma única vez e cada bloco vai para todos os destinos.
+     * Cada destino continua sendo uma tarefa própria, com progresso, status e warnings.log próprios.
+     */
+    private void executeFanOut(List<BackupTask> tasks, BackupOptions options) {
+        tasks.forEach(this::begin);
+        Map<Long, BackupTask> byId = new ConcurrentHashMap<>();
+        tasks.forEach(task -> byId.put(task.getId(), task));
+        try {
+            SourceManifest manifest = scan(tasks.get(0).getSourcePath(), options);
+
+            Map<Long, Path> destinations = new LinkedHashMap<>();
+            for (BackupTask task : tasks) {
+                try {
+                    destinations.put(task.getId(), prepareDestination(task, manifest));
+                } catch (Exception e) {
+                    fail(task, e);
+                    end(byId.remove(task.getId()));
+                }
+            }
+
+            // Cada destino é encerrado quando termina; uma tarefa pausada não atrasa as outras
+            copyEngine.copyFanOut(manifest, destinations, options, outcome -> {
+                BackupTask task = byId.remove(outcome.getTaskId());
+                try {
+                    if (outcome.getError() != null) {
+                        fail(task, outcome.getError());
+                    } else {
+                        finish(task, manifest, outcome.getResult(), options);
+                    }
+                } catch (Exception e) {
+                    fail(task, e);
+                } finally {
+                    end(task);
+                }
+            });
+        } catch (Exception e) {
+            // Falha na origem: nenhum destino recebeu nada
+            byId.values().stream().filter(t -> t.getStatus() == Status.EM_ANDAMENTO).forEach(t -> fail(t, e));
+        } finally {
+            byId.values().forEach(this::end);
+        }
+    }
 
+    private void begin(BackupTask task) {
         // Registra no gerenciador
         taskManager.registerTask(task.getId(), task);
 
         // Envia evento de início
         progressEmitter.sendControlEvent("start", task.getId(), "EM_ANDAMENTO");
+    }
 
-        try {
-            File sourceFolder = backupManager.validateSource(sourcePath);
-            BigDecimal sizeMB = backupManager.calculateFolderSizeMB(sourceFolder);
-            long fileCount = backupManager.countFiles(sourceFolder);
+    // Varredura única: tamanho, contagem e plano de cópia vêm do manifesto
+    private SourceManifest scan(String sourcePath, BackupOptions options) throws IOException {
+        File sourceFolder = backupManager.validateSource(sourcePath);
+        long started = System.nanoTime();
+        SourceManifest manifest = sourceScanner.scan(sourceFolder.toPath(), options);
+        metrics.scanDone(System.nanoTime() - started);
+        return manifest;
+    }
+
+    private Path prepareDestination(BackupTask task, SourceManifest manifest) throws IOException {
+        Path destination = Paths.get(task.getDestinationPath());
 
-            Path source = sourceFolder.toPath();
-            Path destination = Paths.get(destinationPath);
+        backupContext.setLastDestination(destination.toString());
 
-            backupContext.setLastDestination(destination.toString());
+        if (!Files.exists(destination)) Files.createDirectories(destination);
 
-            if (!Files.exists(destination)) Files.createDirectories(destination);
+        progressEmitter.sendProgress(new Progress(
+                0,
+                "Iniciando...",
+                0,
+                (int) manifest.getFileCount(),
+                task.getId().toString()
+        ));
+        return destination;
+    }
+
+    private void finish(BackupTask task, SourceManifest manifest, CopyResult result, BackupOptions options) {
+        long fileCount = manifest.getFileCount();
+        int warnings = result.getWarnings();
+        task.setCopiedFiles(result.getCopiedFiles());
+        task.setSkippedFiles(result.getSkippedFiles());
+        task.setDeletedFiles(result.getDeletedFiles());
+        task.setAvgMbPerSec(result.getMbPerSec());
+        recordCompression(task, result);
+
+        // Verifica se foi cancelado
+        if (result.isCancelled()) {
+            task.setCancelled(true);
+            task.setStatus(Status.CANCELADO);
+            task.setErrorMessage("Backup cancelado pelo usuário");
+            backupRepository.save(task);
 
+            progressEmitter.sendControlEvent("cancel", task.getId(), "CANCELADO");
             progressEmitter.sendProgress(new Progress(
                     0,
-                    "Iniciando...",
+                    "Backup cancelado",
+                    0,
                     0,
-                    (int) fileCount,
                     task.getId().toString()
             ));
-
-            int warnings = copyDirectoryRecursively(source, destination, task.getId());
-
-            // Verifica se foi cancelado
-            if (task.isCancelled()) {
-                task.setStatus(Status.CANCELADO);
-                task.setErrorMessage("Backup cancelado pelo usuário");
-                backupRepository.save(task);
-
-                progressEmitter.sendControlEvent("cancel", task.getId(), "CANCELADO");
-                progressEmitter.sendProgress(new Progress(
-                        0,
-                        "Backup cancelado",
-                        0,
-                        0,
-                        task.getId().toString()
-                ));
-            } else {
-                task.setFinishedAt(LocalDateTime.now());
-                task.setFileCount(fileCount);
-                task.setTotalSizeMB(sizeMB);
-                task.setStatus(Status.CONCLUIDO);
-                task.setErrorMessage(warnings > 0
-                        ? "Concluído com alertas: " + warnings + " item(ns) ignorado(s). Consulte warnings.log no destino."
-                        : null);
-                backupRepository.save(task);
-
-                progressEmitter.sendControlEvent("complete", task.getId(), "CONCLUIDO");
-                progressEmitter.sendProgress(new Progress(
-                        100,
-                        "Backup concluído",
-                        (int) fileCount,
-                        (int) fileCount,
-                        task.getId().toString()
-                ));
-            }
-
-        } catch (Exception e) {
-            task.setStatus(Status.FALHA);
-            task.setErrorMessage(e.getMessage());
+        } else {
+            task.setFinishedAt(LocalDateTime.now());
+            task.setFileCount(fileCount);
+            task.setTotalSizeMB(manifest.getTotalSizeMB());
+            task.setStatus(Status.CONCLUIDO);
+            task.setErrorMessage(warnings > 0
+                    ? "Concluído com alertas: " + warnings + " item(ns) ignorado(s). Consulte warnings.log no destino."
+                    : null);
             backupRepository.save(task);
 
-            progressEmitter.sendControlEvent("error", task.getId(), "FALHA");
-            progressEmitter.sendError("Falha no backup: " + e.getMessage());
+            progressEmitter.sendControlEvent("complete", task.getId(), "CONCLUIDO");
+            progressEmitter.sendProgress(new Progress(
+                    100,
+                    "Backup concluído",
+                    (int) fileCount,
+                    (int) fileCount,
+                    task.getId().toString()
+            ));
 
-            try {
-                progressEmitter.sendProgress(new Progress(
-                        0,
-                        "Falha: " + e.getMessage(),
-                        0,
-                        0,
-                        task.getId().toString()
-                ));
-            } catch (Exception ignored) {
+            if (options.isVerify()) {
+                verify(task, options.getParallelism());
             }
-        } finally {
-            task.setFinishedAt(LocalDateTime.now());
-            backupRepository.save(task);
-            // Remover do gerenciador
-            taskManager.unregisterTask(task.getId());
         }
     }
 
-    @Async
-    public void runBackup(String sourcePath, List<String> destinationPaths) {
-        if (destinationPaths == null || destinationPaths.isEmpty()) {
-            throw new IllegalArgumentException("Lista de destinos não pode estar vazia.");
+    /**
+     * Agenda a verificação de um backup concluído. O resultado fica gravado na tarefa
+     * e as divergências no warnings.log do destino.
+     *
+     * @return false se a tarefa não existe ou não está concluída
+     * @throws IllegalStateException se a tarefa já está sendo verificada
+     * @throws JobQueueFullException se a fila estiver cheia
+     */
+    public boolean verifyBackup(Long taskId, Integer parallelism) {
+        BackupTask task = backupRepository.findById(taskId).orElse(null);
+        if (task == null || task.getStatus() != Status.CONCLUIDO) {
+            return false;
+        }
+        if (!verifying.add(taskId)) {
+            throw new IllegalStateException("Verificação já em andamento para a tarefa " + taskId);
+        }
+        if (!jobScheduler.tryAdmit()) {
+            verifying.remove(taskId);
+            throw new JobQueueFullException();
         }
 
-        for (String destinationPath : destinationPaths) {
+        jobScheduler.submit(taskId, volumesOf(task), () -> {
             try {
-                System.out.println("[BackupService] Iniciando backup para destino: " + destinationPath);
-                runBackup(sourcePath, destinationPath);
-            } catch (Exception e) {
-                System.err.println("[BackupService] Falha ao copiar para destino '" + destinationPath + "': " + e.getMessage());
+                verify(task, parallelism);
+            } finally {
+                verifying.remove(taskId);
             }
-        }
+        });
+        return true;
     }
 
-
-    private int copyDirectoryRecursively(Path source, Path destination, Long taskId) {
-        List<String> excludedFolders = List.of(
-                "AppData", "Ambiente de Impressão", "Meus Vídeos",
-                "Links", "Saved Games", "Searches", "Favorites",
-                "MicrosoftEdgeBackups"
-        );
-
-        AtomicInteger warnings = new AtomicInteger(0);
-        Path logFile = destination.resolve("warnings.log");
+    private void verify(BackupTask task, Integer parallelism) {
+        Long taskId = task.getId();
+        logger.info("Verificando backup da tarefa {}: {} -> {}", taskId, task.getSourcePath(), task.getDestinationPath());
+        progressEmitter.sendControlEvent("verify", taskId, task.getStatus().name());
 
         try {
-            if (!Files.exists(destination)) {
-                Files.createDirectories(destination);
-            }
-
-            Files.walkFileTree(source, new SimpleFileVisitor<>() {
-
-                int processed = 0;
-                int total;
-
-                {
-                    try {
-                        total = (int) backupManager.countFiles(source.toFile());
-                        if (total < 0) total = 0;
-                    } catch (Exception ignored) {
-                        total = 0;
-                    }
-                }
-
-                private boolean shouldExclude(Path path, BasicFileAttributes attrs) {
-                    try {
-                        if (attrs.isOther() || Files.isSymbolicLink(path)) return true;
-                        String p = path.toString();
-                        for (String excluded : excludedFolders) {
-                            if (p.contains(excluded)) return true;
-                        }
-                    } catch (Exception ignored) {
-                    }
-                    return false;
-                }
-
-                private void logWarning(String message, Path path) {
-                    warnings.incrementAndGet();
-                    String logEntry = String.format("[%s] %s: %s%n",
-                            LocalDateTime.now(), message, path);
-                    System.err.println(logEntry);
-                    try {
-                        Files.writeString(logFile, logEntry, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-                    } catch (IOException ignored) {
-                    }
-                }
-
-                // Método para verificar pausa
-                private FileVisitResult checkPauseAndCancel() {
-                    BackupTask task = taskManager.getTask(taskId);
-                    if (task == null) {
-                        logger.warn("Tarefa {} não encontrada no gerenciador", taskId);
-                        return FileVisitResult.TERMINATE;
-                    }
-
-                    if (task.isCancelled()) {
-                        logger.info("Backup {} cancelado pelo usuário", taskId);
-                        return FileVisitResult.TERMINATE;
-                    }
-
-                    // Verificar pausa MAS permitir sair do loop
-                    int pauseCheckCount = 0;
-                    while (task.isPaused() && !task.isCancelled()) {
-                        if (pauseCheckCount == 0) {
-                            // Primeira vez que detecta pausa
-                            try {
-                                progressEmitter.sendProgress(new Progress(
-                                        0,
-                                        "Backup pausado...",
-                                        0,
-                                        0,
-                                        taskId.toString()
-                                ));
-                            } catch (Exception e) {
-                                logger.warn("Erro ao enviar progresso de pausa: {}", e.getMessage());
-                            }
-                        }
-
-                        pauseCheckCount++;
-
-                        // Verificar a cada 500ms (não 1 segundo)
-                        try {
-                            Thread.sleep(500);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            return FileVisitResult.TERMINATE;
-                        }
-
-                        // Buscar tarefa novamente (pode ter mudado)
-                        task = taskManager.getTask(taskId);
-                        if (task == null) {
-                            return FileVisitResult.TERMINATE;
-                        }
-
-                        // Log a cada 10 verificações (5 segundos)
-                        if (pauseCheckCount % 10 == 0) {
-                            logger.debug("Backup {} ainda pausado (verificação #{})", taskId, pauseCheckCount);
-                        }
-                    }
-
-                    // Se saiu do loop porque não está mais pausado
-                    if (pauseCheckCount > 0) {
-                        logger.info("Backup {} retomado após pausa", taskId);
-                        try {
-                            progressEmitter.sendProgress(new Progress(
-                                    0,
-                                    "Retomando backup...",
-                                    processed,
-                                    total,
-                                    taskId.toString()
-                            ));
-                        } catch (Exception e) {
-                            logger.warn("Erro ao enviar progresso de retomada: {}", e.getMessage());
-                        }
-                    }
+            VerifyResult result = backupVerifier.verify(Paths.get(task.getSourcePath()),
+                    Paths.get(task.getDestinationPath()), task.getDestinationFormat(), parallelism);
+            task.setVerifiedFiles(result.getVerifiedFiles());
+            task.setVerifyMismatches(result.getMismatches());
+            task.setVerifyBytes(result.getBytes());
+            task.setVerifyMs(result.getElapsedMillis());
+            task.setVerifyMbPerSec(result.getMbPerSec());
+            task.setVerifiedAt(LocalDateTime.now());
+            backupRepository.save(task);
 
-                    return FileVisitResult.CONTINUE;
-                }
+            progressEmitter.sendControlEvent("verified", taskId, task.getStatus().name());
+            if (result.getMismatches() > 0) {
+                progressEmitter.sendError(taskId, "Verificação encontrou " + result.getMismatches()
+                        + " divergência(s). Consulte warnings.log no destino.");
+            }
+        } catch (Exception e) {
+            logger.warn("Falha na verificação da tarefa {}: {}", taskId, e.getMessage());
+            progressEmitter.sendError(taskId, "Falha na verificação: " + e.getMessage());
+        }
+    }
 
-                @Override
-                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-                    // Verificar pausa/cancelamento antes de processar diretório
-                    FileVisitResult result = checkPauseAndCancel();
-                    if (result != FileVisitResult.CONTINUE) {
-                        return result;
-                    }
+    private void fail(BackupTask task, Exception e) {
+        task.setStatus(Status.FALHA);
+        task.setErrorMessage(e.getMessage());
+        backupRepository.save(task);
 
-                    if (shouldExclude(dir, attrs)) {
-                        logWarning("Ignorado diretório simbólico/junction", dir);
-                        return FileVisitResult.SKIP_SUBTREE;
-                    }
+        progressEmitter.sendControlEvent("error", task.getId(), "FALHA");
+        progressEmitter.sendError(task.getId(), "Falha no backup: " + e.getMessage());
 
-                    Path targetDir = destination.resolve(source.relativize(dir));
-                    try {
-                        Files.createDirectories(targetDir);
-                    } catch (AccessDeniedException ade) {
-                        logWarning("Acesso negado ao diretório", dir);
-                        return FileVisitResult.SKIP_SUBTREE;
-                    } catch (IOException e) {
-                        logWarning("Erro ao criar diretório destino", dir);
-                        return FileVisitResult.SKIP_SUBTREE;
-                    }
+        try {
+            progressEmitter.sendProgress(new Progress(
+                    0,
+                    "Falha: " + e.getMessage(),
+                    0,
+                    0,
+                    task.getId().toString()
+            ));
+        } catch (Exception ignored) {
+        }
+    }
 
-                    return FileVisitResult.CONTINUE;
-                }
+    private void end(BackupTask task) {
+        task.setFinishedAt(LocalDateTime.now());
+        backupRepository.save(task);
+        // Remover do gerenciador
+        taskManager.unregisterTask(task.getId());
+        activePairs.release(task);
+    }
 
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                    // Verificar pausa/cancelamento antes de processar arquivo
-                    FileVisitResult result = checkPauseAndCancel();
-                    if (result != FileVisitResult.CONTINUE) {
-                        return result;
-                    }
+    private static void recordCompression(BackupTask task, CopyResult result) {
+        CompressionStats stats = result.getCompression();
+        if (stats == null || stats.getFiles() == 0) {
+            return;
+        }
+        long saved = stats.getInputBytes() - stats.getOutputBytes();
+        long written = Math.max(1, result.getTransferredBytes() - saved);
+
+        task.setCompressedFiles(stats.getFiles());
+        task.setCompressionRatio(BigDecimal.valueOf(stats.getOutputBytes())
+                .divide(BigDecimal.valueOf(Math.max(1, stats.getInputBytes())), 3, RoundingMode.HALF_UP));
+        task.setCompressionSavedBytes(saved);
+        task.setCompressionSavedMs(saved > 0 ? saved * result.getElapsedMillis() / written : 0);
+    }
 
-                    if (shouldExclude(file, attrs)) {
-                        logWarning("Ignorado arquivo simbólico/junction", file);
-                        return FileVisitResult.CONTINUE;
-                    }
+    public List<BackupTask> runBackup(String sourcePath, List<String> destinationPaths) {
+        return runFanOut(sourcePath, destinationPaths, BackupOptions.defaults());
+    }
 
-                    Path targetFile = destination.resolve(source.relativize(file));
-                    try {
-                        Files.createDirectories(targetFile.getParent());
-                        Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
-
-                        processed++;
-                        int percent;
-                        if (total > 0) {
-                            percent = (processed * 100) / total;
-                        } else {
-                            percent = 0;
-                        }
-
-                        try {
-                            progressEmitter.sendProgress(new Progress(
-                                    percent,
-                                    file.toString(),
-                                    processed,
-                                    total,
-                                    taskId.toString()
-                            ));
-                        } catch (Exception ignored) {
-                        }
-
-                    } catch (AccessDeniedException ade) {
-                        logWarning("Acesso negado ao arquivo", file);
-                    } catch (IOException e) {
-                        logWarning("Erro ao copiar arquivo", file);
-                    } catch (Exception e) {
-                        logWarning("Erro inesperado ao copiar arquivo", file);
-                    }
+    /**
+     * Cria uma tarefa NA_FILA por destino e as executa juntas, lendo a origem uma única vez.
+     * O grupo ocupa uma vaga do agendador e espera pelos volumes da origem e de todos os destinos.
+     *
+     * @throws ActiveTaskConflictException se algum par já tiver uma tarefa ativa (nada é gravado)
+     * @throws JobQueueFullException se a fila estiver cheia (nada é gravado)
+     */
+    public List<BackupTask> runFanOut(String sourcePath, List<String> destinationPaths, BackupOptions options) {
+        if (destinationPaths == null || destinationPaths.isEmpty()) {
+            throw new IllegalArgumentException("Lista de destinos não pode estar vazia.");
+        }
+        List<BackupTask> tasks = new ArrayList<>();
+        for (String destinationPath : new LinkedHashSet<>(destinationPaths)) {
+            tasks.add(newQueuedTask(sourcePath, destinationPath, options));
+        }
+        insertQueued(tasks, 1);
 
-                    return FileVisitResult.CONTINUE;
-                }
+        List<Long> taskIds = tasks.stream().map(BackupTask::getId).toList();
+        logger.info("Tarefas de fan-out salvas no banco: IDs={}, Origem={}", taskIds, sourcePath);
 
-                @Override
-                public FileVisitResult visitFileFailed(Path file, IOException exc) {
-                    logWarning("Falha ao visitar arquivo/pasta", file);
-                    return FileVisitResult.CONTINUE;
-                }
+        List<Path> volumes = new ArrayList<>();
+        volumes.add(Paths.get(sourcePath));
+        tasks.forEach(task -> volumes.add(Paths.get(task.getDestinationPath())));
+        jobScheduler.submit(taskIds.get(0), volumes, () -> startQueuedFanOut(taskIds, options));
+        return tasks;
+    }
 
-                @Override
-                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
-                    if (exc != null) logWarning("Erro ao visitar diretório", dir);
-                    // Também verificar pausa ao sair de diretório
-                    return checkPauseAndCancel();
-                }
-            });
-        } catch (IOException e) {
-            String msg = "Erro ao percorrer diretório: " + e.getMessage();
-            try {
-                Files.writeString(logFile, String.format("[%s] %s%n", LocalDateTime.now(), msg),
-                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-            } catch (IOException ignored) {
+    private void startQueuedFanOut(List<Long> taskIds, BackupOptions options) {
+        List<BackupTask> tasks = new ArrayList<>();
+        for (Long taskId : taskIds) {
+            // Recarrega: cada tarefa pode ter sido cancelada enquanto esperava na fila
+            BackupTask task = backupRepository.findById(taskId).orElse(null);
+            if (task == null || task.getStatus() != Status.NA_FILA) {
+                logger.info("Tarefa {} saiu da fila sem executar", taskId);
+                continue;
             }
-            throw new RuntimeException(msg, e);
+            task.setStatus(Status.EM_ANDAMENTO);
+            task.setStartedAt(LocalDateTime.now());
+            tasks.add(backupRepository.save(task));
         }
 
-        return warnings.get();
+        if (tasks.size() == 1) {
+            execute(tasks.get(0), options);
+        } else if (!tasks.isEmpty()) {
+            executeFanOut(tasks, options);
+        }
     }
 
-    public List<BackupTask> getAllTasks() {
-        return backupRepository.findAll();
+    // Busca limit + 1 para saber se há próxima página sem um count
+    public HistoryPage getHistory(HistoryFilter filter, Long beforeId, int limit) {
+        List<BackupResponse> items = backupRepository.findHistory(filter, beforeId, limit + 1);
+        boolean more = items.size() > limit;
+        if (more) {
+            items = items.subList(0, limit);
+        }
+        Long nextCursor = more ? items.get(items.size() - 1).getId() : null;
+        return new HistoryPage(items, nextCursor);
+    }
+
+    public List<BackupTask> getActiveTasks() {
+        return backupRepository.findByStatusIn(BackupRepository.ACTIVE_STATUSES);
     }
 
     public boolean pauseBackup(Long taskId) {
@@ -426,8 +572,17 @@ public class BackupService {
 
     public boolean resumeBackup(Long taskId) {
         logger.info("BackupService.resumeBackup() chamado para taskId: {}", taskId);
+        boolean running = taskManager.isRegistered(taskId);
         boolean result = taskManager.resumeTask(taskId);
         logger.info("Resultado do resumeTask(): {}", result);
+
+        // Nenhuma thread esperando por esta tarefa (ex.: pausada antes de um reinício): roda de novo pelo diário
+        if (result && !running) {
+            backupRepository.findById(taskId).ifPresent(task -> {
+                jobScheduler.admit();
+                jobScheduler.submit(taskId, volumesOf(task), () -> resumeInterrupted(task));
+            });
+        }
         return result;
     }
 
@@ -440,12 +595,6 @@ public class BackupService {
 
     // Método para obter tarefa ativa por source/destination
     public Optional<BackupTask> getActiveTask(String sourcePath, String destinationPath) {
-        List<BackupTask> tasks = backupRepository.findAll();
-        return tasks.stream()
-                .filter(t -> t.getSourcePath().equals(sourcePath) &&
-                        t.getDestinationPath().equals(destinationPath) &&
-                        (t.getStatus() == Status.EM_ANDAMENTO ||
-                                t.getStatus() == Status.PAUSADO))
-                .findFirst();
+        return activePairs.activeTaskId(sourcePath, destinationPath).flatMap(backupRepository::findById);
     }
 }
\ No newline at end of file
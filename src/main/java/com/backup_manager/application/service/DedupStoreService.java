@@ -0,0 +1,216 @@
+package com.backup_manager.application.service;
+
+import com.backup_manager.domain.exception.DestinationNotFoundException;
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.DestinationFormat;
+import com.backup_manager.infrastructure.persistence.BackupRepository;
+import com.backup_manager.infrastructure.storage.ChunkStore;
+import com.backup_manager.infrastructure.storage.ChunkStore.StoredEntry;
+import com.backup_manager.infrastructure.storage.ChunkStoreWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * Operações sobre os stores de deduplicação ({@link ChunkStore}):
+ * abertura para gravação, restauração e coleta de lixo em segundo plano.
+ * Backups em andamento e a coleta de lixo do mesmo store nunca rodam juntos.
+ */
+@Service
+public class DedupStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DedupStoreService.class);
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final BackupRepository backupRepository;
+    private final int keepManifests;
+    // StampedLock não amarra a trava à thread: no fan-out a tarefa é fechada (e a trava de leitura
+    // liberada) em outra thread, não na que abriu o gravador
+    private final Map<Path, StampedLock> locks = new ConcurrentHashMap<>();
+
+    public DedupStoreService(
+            BackupRepository backupRepository,
+            @Value("${backup.dedup.keep-manifests:0}") int keepManifests
+    ) {
+        this.backupRepository = backupRepository;
+        this.keepManifests = keepManifests;
+    }
+
+    public ChunkStoreWriter openWriter(Path source, Path destination, Long taskId, BackupOptions options)
+            throws IOException {
+        Lock lock = lockFor(destination).asReadLock();
+        lock.lock();
+        try {
+            String name = LocalDateTime.now().format(NAME_FORMAT) + "-" + taskId;
+            return new ChunkStoreWriter(new ChunkStore(destination), source, name, options, lock);
+        } catch (IOException | RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Reconstrói uma árvore comum a partir de um manifesto do store.
+     *
+     * @param manifestName nome do manifesto; nulo para o mais recente
+     * @return quantidade de arquivos restaurados
+     */
+    public long restore(String destinationPath, String manifestName, String targetPath) throws IOException {
+        ChunkStore store = new ChunkStore(Path.of(destinationPath));
+        if (!store.exists()) {
+            throw new DestinationNotFoundException(destinationPath);
+        }
+
+        Path manifest;
+        if (manifestName == null || manifestName.isBlank()) {
+            List<Path> manifests = store.listManifests();
+            if (manifests.isEmpty()) {
+                throw new IllegalArgumentException("Nenhum manifesto concluído em " + destinationPath);
+            }
+            manifest = manifests.getLast();
+        } else {
+            manifest = store.getManifestsDir().resolve(manifestName).normalize();
+            if (!manifest.startsWith(store.getManifestsDir()) || !Files.exists(manifest)) {
+                throw new IllegalArgumentException("Manifesto não encontrado: " + manifestName);
+            }
+        }
+
+        Lock lock = lockFor(Path.of(destinationPath)).asReadLock();
+        lock.lock();
+        try {
+            long restored = store.restore(manifest, Path.of(targetPath));
+            logger.info("Restaurados {} arquivo(s) de {} para {}", restored, manifest.getFileName(), targetPath);
+            return restored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${backup.dedup.gc-interval-ms:21600000}",
+            fixedDelayString = "${backup.dedup.gc-interval-ms:21600000}"
+    )
+    public void collectAll() {
+        List<String> destinations = backupRepository.findDestinationPathsByFormat(DestinationFormat.DEDUP);
+        for (String destination : destinations) {
+            try {
+                collect(Path.of(destination));
+            } catch (Exception e) {
+                logger.warn("Falha na coleta de lixo de {}: {}", destination, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove manifestos fora da retenção e blocos que nenhum manifesto referencia.
+     *
+     * @return quantidade de blocos removidos, ou -1 se o store estava em uso
+     */
+    public long collect(Path destination) throws IOException {
+        ChunkStore store = new ChunkStore(destination);
+        if (!store.exists()) {
+            return 0;
+        }
+
+        Lock lock = lockFor(destination).asWriteLock();
+        if (!lock.tryLock()) {
+            logger.info("Coleta de lixo de {} adiada: store em uso", destination);
+            return -1;
+        }
+
+        try {
+            List<Path> manifests = applyRetention(store);
+
+            Set<String> referenced = new HashSet<>();
+            for (Path manifest : manifests) {
+                for (StoredEntry entry : store.readManifest(manifest)) {
+                    referenced.addAll(entry.getChunks());
+                }
+            }
+
+            long removed = 0;
+            long freedBytes = 0;
+            try (Stream<Path> chunks = store.walkChunks()) {
+                for (Path chunk : (Iterable<Path>) chunks::iterator) {
+                    if (referenced.contains(chunk.getFileName().toString())) {
+                        continue;
+                    }
+                    freedBytes += Files.size(chunk);
+                    Files.delete(chunk);
+                    removed++;
+                }
+            }
+
+            logger.info("Coleta de lixo de {}: {} bloco(s) removido(s), {} MB liberados",
+                    destination, removed, freedBytes / (1024 * 1024));
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Mantém os últimos N manifestos por origem e descarta parciais já superados
+    private List<Path> applyRetention(ChunkStore store) throws IOException {
+        Map<String, List<Path>> bySource = new LinkedHashMap<>();
+        for (Path manifest : store.listManifests()) {
+            String source = Objects.requireNonNullElse(store.readSource(manifest), "");
+            bySource.computeIfAbsent(source, k -> new ArrayList<>()).add(manifest);
+        }
+
+        List<Path> kept = new ArrayList<>();
+        for (List<Path> manifests : bySource.values()) {
+            int drop = keepManifests > 0 ? Math.max(0, manifests.size() - keepManifests) : 0;
+            for (int i = 0; i < manifests.size(); i++) {
+                if (i < drop) {
+                    Files.delete(manifests.get(i));
+                } else {
+                    kept.add(manifests.get(i));
+                }
+            }
+        }
+
+        String newest = kept.stream()
+                .map(p -> p.getFileName().toString())
+                .max(String::compareTo)
+                .orElse("");
+        for (Path partial : store.listPartialManifests()) {
+            if (partial.getFileName().toString().compareTo(newest) < 0) {
+                Files.delete(partial);
+            } else {
+                kept.add(partial);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Trava de leitura do store, a mesma que os gravadores seguram: enquanto estiver presa,
+     * a coleta de lixo não remove blocos do destino. Quem chama trava e destrava.
+     */
+    public Lock readLock(Path destination) {
+        return lockFor(destination).asReadLock();
+    }
+
+    private StampedLock lockFor(Path destination) {
+        return locks.computeIfAbsent(destination.toAbsolutePath().normalize(), k -> new StampedLock());
+    }
+}
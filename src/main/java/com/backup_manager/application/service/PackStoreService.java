@@ -0,0 +1,331 @@
+package com.backup_manager.application.service;
+
+import com.backup_manager.domain.exception.DestinationNotFoundException;
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.DestinationFormat;
+import com.backup_manager.infrastructure.persistence.BackupRepository;
+import com.backup_manager.infrastructure.storage.LargeFileCopier;
+import com.backup_manager.infrastructure.storage.PackStore;
+import com.backup_manager.infrastructure.storage.PackStore.Kind;
+import com.backup_manager.infrastructure.storage.PackStore.PackedEntry;
+import com.backup_manager.infrastructure.storage.PackWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * Operações sobre destinos em pacotes ({@link PackStore}): abertura para gravação, restauração
+ * e coleta de lixo em segundo plano. Backups em andamento e a coleta de lixo do mesmo destino
+ * nunca rodam juntos.
+ */
+@Service
+public class PackStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PackStoreService.class);
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final BackupRepository backupRepository;
+    private final long smallFileLimit;
+    private final long packSizeLimit;
+    private final int keepIndexes;
+    // StampedLock não amarra a trava à thread: no fan-out a tarefa é fechada (e a trava de leitura
+    // liberada) em outra thread, não na que abriu o gravador
+    private final Map<Path, StampedLock> locks = new ConcurrentHashMap<>();
+
+    public PackStoreService(
+            BackupRepository backupRepository,
+            @Value("${backup.pack.small-file-kb:64}") long smallFileKb,
+            @Value("${backup.pack.pack-size-mb:512}") long packSizeMb,
+            @Value("${backup.pack.keep-indexes:0}") int keepIndexes
+    ) {
+        this.backupRepository = backupRepository;
+        this.smallFileLimit = smallFileKb * 1024;
+        this.packSizeLimit = Math.max(1, packSizeMb) * 1024 * 1024;
+        this.keepIndexes = keepIndexes;
+    }
+
+    /**
+     * @param completed arquivos que o diário da tarefa dá como concluídos; numa retomada, o backup
+     *                  continua com o mesmo nome e reaproveita esses itens do próprio índice parcial
+     */
+    public PackWriter openWriter(Path source, Path destination, Long taskId, BackupOptions options,
+                                 LargeFileCopier largeFileCopier, Set<String> completed) throws IOException {
+        Lock lock = lockFor(destination).asReadLock();
+        lock.lock();
+        try {
+            PackStore store = new PackStore(destination);
+            Path partial = completed.isEmpty() ? null : findPartialIndex(store, taskId);
+            String name;
+            Map<String, PackedEntry> resumed;
+            if (partial != null) {
+                String fileName = partial.getFileName().toString();
+                name = fileName.substring(0, fileName.length() - PackStore.PARTIAL_SUFFIX.length());
+                resumed = readResumed(store, partial, completed);
+                logger.info("Retomando índice {}: {} item(ns) reaproveitado(s)", name, resumed.size());
+            } else {
+                name = LocalDateTime.now().format(NAME_FORMAT) + "-" + taskId;
+                resumed = Map.of();
+            }
+            return new PackWriter(store, source, name, options, smallFileLimit, packSizeLimit, largeFileCopier,
+                    resumed, lock);
+        } catch (IOException | RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+    }
+
+    private static Path findPartialIndex(PackStore store, Long taskId) throws IOException {
+        String suffix = "-" + taskId + PackStore.PARTIAL_SUFFIX;
+        return store.listPartialIndexes().stream()
+                .filter(p -> p.getFileName().toString().endsWith(suffix))
+                .max(Comparator.comparing(p -> p.getFileName().toString()))
+                .orElse(null);
+    }
+
+    // Lido antes do PackWriter recriar o arquivo; a última linha pode ter ficado pela metade na queda
+    private static Map<String, PackedEntry> readResumed(PackStore store, Path partial, Set<String> completed) {
+        Map<String, PackedEntry> resumed = new HashMap<>();
+        try {
+            for (PackedEntry entry : store.readIndex(partial)) {
+                if (entry.getKind() != Kind.DIRECTORY && completed.contains(entry.getRelativePath())) {
+                    resumed.put(entry.getRelativePath(), entry);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Índice parcial {} ilegível; a tarefa recomeça do zero: {}", partial, e.getMessage());
+            return Map.of();
+        }
+        return resumed;
+    }
+
+    public boolean isPackDestination(String destinationPath) {
+        return new PackStore(Path.of(destinationPath)).exists();
+    }
+
+    /**
+     * Reconstrói uma árvore comum a partir de um índice de pacotes.
+     *
+     * @param indexName nome do índice; nulo para o mais recente
+     * @return quantidade de arquivos restaurados
+     */
+    public long restore(String destinationPath, String indexName, String targetPath) throws IOException {
+        PackStore store = new PackStore(Path.of(destinationPath));
+        if (!store.exists()) {
+            throw new DestinationNotFoundException(destinationPath);
+        }
+
+        Path index;
+        if (indexName == null || indexName.isBlank()) {
+            List<Path> indexes = store.listIndexes();
+            if (indexes.isEmpty()) {
+                throw new IllegalArgumentException("Nenhum índice concluído em " + destinationPath);
+            }
+            index = indexes.getLast();
+        } else {
+            index = store.getRoot().resolve(indexName).normalize();
+            if (!index.startsWith(store.getRoot()) || !Files.exists(index)) {
+                throw new IllegalArgumentException("Índice não encontrado: " + indexName);
+            }
+        }
+
+        Lock lock = lockFor(Path.of(destinationPath)).asReadLock();
+        lock.lock();
+        try {
+            long restored = store.restore(index, Path.of(targetPath));
+            logger.info("Restaurados {} arquivo(s) de {} para {}", restored, index.getFileName(), targetPath);
+            return restored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${backup.pack.gc-interval-ms:21600000}",
+            fixedDelayString = "${backup.pack.gc-interval-ms:21600000}"
+    )
+    public void collectAll() {
+        List<String> destinations = backupRepository.findDestinationPathsByFormat(DestinationFormat.PACKED);
+        for (String destination : destinations) {
+            try {
+                collect(Path.of(destination));
+            } catch (Exception e) {
+                logger.warn("Falha na coleta de lixo de {}: {}", destination, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove índices fora da retenção e o que nenhum índice mantido referencia: pacotes inteiros
+     * e arquivos grandes em {@code .packs/files}.
+     * Um pacote com algum item ainda referenciado é mantido inteiro.
+     *
+     * @return quantidade de arquivos removidos, ou -1 se o destino estava em uso
+     */
+    public long collect(Path destination) throws IOException {
+        PackStore store = new PackStore(destination);
+        if (!store.exists()) {
+            return 0;
+        }
+
+        Lock lock = lockFor(destination).asWriteLock();
+        if (!lock.tryLock()) {
+            logger.info("Coleta de lixo de {} adiada: destino em uso", destination);
+            return -1;
+        }
+
+        try {
+            List<Path> dropped = new ArrayList<>();
+            List<Path> kept = applyRetention(store, dropped);
+
+            Set<String> packs = new HashSet<>();
+            Set<Path> files = new HashSet<>();
+            for (Path index : kept) {
+                for (PackedEntry entry : store.readIndex(index)) {
+                    if (entry.getKind() == Kind.PACKED) {
+                        packs.add(entry.getPack());
+                    } else if (entry.getKind() == Kind.FILE) {
+                        files.add(store.filePath(entry));
+                    }
+                }
+            }
+
+            for (Path index : dropped) {
+                Files.delete(index);
+            }
+            long removed = removeUnreferencedPacks(store, packs);
+            removed += removeUnreferencedFiles(store, files, partialNames(kept));
+
+            logger.info("Coleta de lixo de {}: {} índice(s) e {} arquivo(s) removido(s)",
+                    destination, dropped.size(), removed);
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Mantém os últimos N índices por origem e descarta parciais já superados
+    private List<Path> applyRetention(PackStore store, List<Path> dropped) throws IOException {
+        Map<String, List<Path>> bySource = new LinkedHashMap<>();
+        for (Path index : store.listIndexes()) {
+            String source = Objects.requireNonNullElse(store.readSource(index), "");
+            bySource.computeIfAbsent(source, k -> new ArrayList<>()).add(index);
+        }
+
+        List<Path> kept = new ArrayList<>();
+        for (List<Path> indexes : bySource.values()) {
+            int drop = keepIndexes > 0 ? Math.max(0, indexes.size() - keepIndexes) : 0;
+            for (int i = 0; i < indexes.size(); i++) {
+                (i < drop ? dropped : kept).add(indexes.get(i));
+            }
+        }
+
+        String newest = kept.stream()
+                .map(p -> p.getFileName().toString())
+                .max(String::compareTo)
+                .orElse("");
+        for (Path partial : store.listPartialIndexes()) {
+            (partial.getFileName().toString().compareTo(newest) < 0 ? dropped : kept).add(partial);
+        }
+        return kept;
+    }
+
+    private static long removeUnreferencedPacks(PackStore store, Set<String> referenced) throws IOException {
+        long removed = 0;
+        try (Stream<Path> files = Files.list(store.getRoot())) {
+            for (Path pack : (Iterable<Path>) files::iterator) {
+                String fileName = pack.getFileName().toString();
+                if (!fileName.endsWith(PackStore.PACK_SUFFIX)) {
+                    continue;
+                }
+                if (!referenced.contains(fileName.substring(0, fileName.length() - PackStore.PACK_SUFFIX.length()))) {
+                    Files.delete(pack);
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    private static Set<String> partialNames(List<Path> kept) {
+        Set<String> names = new HashSet<>();
+        for (Path index : kept) {
+            String fileName = index.getFileName().toString();
+            if (fileName.endsWith(PackStore.PARTIAL_SUFFIX)) {
+                names.add(fileName.substring(0, fileName.length() - PackStore.PARTIAL_SUFFIX.length()));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Arquivos grandes sem referência e, depois, as pastas que ficaram vazias. Os ".part" de um
+     * backup interrompido que ainda pode ser retomado ficam para a retomada.
+     */
+    private static long removeUnreferencedFiles(PackStore store, Set<Path> referenced, Set<String> resumable)
+            throws IOException {
+        if (!Files.isDirectory(store.filesDir())) {
+            return 0;
+        }
+        long removed = 0;
+        List<Path> dirs = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(store.filesDir())) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isDirectory(path)) {
+                    dirs.add(path);
+                } else if (!referenced.contains(path) && !isResumablePart(store, path, resumable)) {
+                    Files.delete(path);
+                    removed++;
+                }
+            }
+        }
+        dirs.sort(Comparator.reverseOrder());
+        for (Path dir : dirs) {
+            if (!dir.equals(store.filesDir())) {
+                try (Stream<Path> children = Files.list(dir)) {
+                    if (children.findAny().isEmpty()) {
+                        Files.delete(dir);
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    private static boolean isResumablePart(PackStore store, Path path, Set<String> resumable) {
+        return path.getFileName().toString().endsWith(LargeFileCopier.PART_SUFFIX)
+                && resumable.contains(store.filesDir().relativize(path).getName(0).toString());
+    }
+
+    /**
+     * Trava de leitura do store, a mesma que os gravadores seguram: enquanto estiver presa,
+     * a coleta de lixo não remove pacotes do destino. Quem chama trava e destrava.
+     */
+    public Lock readLock(Path destination) {
+        return lockFor(destination).asReadLock();
+    }
+
+    private StampedLock lockFor(Path destination) {
+        return locks.computeIfAbsent(destination.toAbsolutePath().normalize(), k -> new StampedLock());
+    }
+}
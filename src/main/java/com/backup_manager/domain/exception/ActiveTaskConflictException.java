@@ -0,0 +1,20 @@
+package com.backup_manager.domain.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ActiveTaskConflictException extends RuntimeException {
+
+    private final String sourcePath;
+    private final String destinationPath;
+
+    // Tarefa que ocupa o par; nula se ela ainda está sendo criada
+    private final Long taskId;
+
+    public ActiveTaskConflictException(String sourcePath, String destinationPath, Long taskId) {
+        super("Já existe um backup ativo para este par origem/destino");
+        this.sourcePath = sourcePath;
+        this.destinationPath = destinationPath;
+        this.taskId = taskId;
+    }
+}
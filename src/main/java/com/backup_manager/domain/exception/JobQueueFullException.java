@@ -0,0 +1,8 @@
+package com.backup_manager.domain.exception;
+
+public class JobQueueFullException extends RuntimeException{
+
+    public JobQueueFullException(){
+        super("Fila de backups cheia. Tente novamente mais tarde.");
+    }
+}
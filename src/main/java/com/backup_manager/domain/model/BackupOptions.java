@@ -0,0 +1,46 @@
+package com.backup_manager.domain.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Opções de execução de uma tarefa de backup.
+ * Valores nulos significam "usar o padrão configurado na aplicação".
+ */
+@Getter
+@Setter
+public class BackupOptions {
+
+    private Integer parallelism;
+
+    private DestinationFormat format = DestinationFormat.PLAIN;
+
+    // Copia apenas arquivos novos ou alterados desde o último backup no destino
+    private boolean incremental;
+
+    // No modo incremental, remove do destino o que saiu da origem
+    private boolean deleteRemoved;
+
+    // Grava arquivos comprimíveis como .gz (somente formato PLAIN)
+    private boolean compress;
+
+    // Regras de inclusão/exclusão (ver PathFilter) e filtros de arquivo; nulos = sem filtro
+    private List<String> include;
+    private List<String> exclude;
+    private Long minSize;
+    private Long maxSize;
+    private Integer maxAgeDays;
+
+    // Confere origem e destino por hash ao fim da cópia
+    private boolean verify;
+
+    // Calcula o hash de cada arquivo durante a cópia e grava no índice do destino (PLAIN e PACKED).
+    // Desligado por padrão: os bytes precisam passar pela JVM, o que tira arquivos grandes do transferTo
+    private boolean checksum;
+
+    public static BackupOptions defaults() {
+        return new BackupOptions();
+    }
+}
@@ -13,6 +13,9 @@ import java.time.LocalDateTime;
 @Table(name = "backup_tasks", indexes = {
         @Index(name = "idx_status", columnList = "status"),
         @Index(name = "idx_source_dest", columnList = "source_path, destination_path"),
+        @Index(name = "idx_backup_tasks_status_id", columnList = "status, id"),
+        @Index(name = "idx_backup_tasks_source_id", columnList = "source_path, id"),
+        @Index(name = "idx_backup_tasks_started_at", columnList = "started_at"),
 })
 public class BackupTask {
 
@@ -31,6 +34,14 @@ public class BackupTask {
     @Column(name = "status", nullable = false, length = 20)
     private Status status;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "destination_format", length = 20)
+    private DestinationFormat destinationFormat;
+
+    // BackupOptions da tarefa em JSON, gravadas ao enfileirar (ver BackupOptionsJson)
+    @Column(name = "options_json", columnDefinition = "TEXT")
+    private String optionsJson;
+
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
@@ -40,6 +51,78 @@ public class BackupTask {
     @Column(name = "total_size_mb", precision = 10, scale = 2)
     private BigDecimal totalSizeMB;
 
+    @Column(name = "copied_files")
+    private Long copiedFiles;
+
+    @Column(name = "skipped_files")
+    private Long skippedFiles;
+
+    @Column(name = "deleted_files")
+    private Long deletedFiles;
+
+    @Column(name = "compressed_files")
+    private Long compressedFiles;
+
+    // Bytes gravados / bytes originais dos arquivos comprimidos
+    @Column(name = "compression_ratio", precision = 6, scale = 3)
+    private BigDecimal compressionRatio;
+
+    @Column(name = "compression_saved_bytes")
+    private Long compressionSavedBytes;
+
+    // Estimativa do tempo de gravação poupado, pela vazão média da tarefa
+    @Column(name = "compression_saved_ms")
+    private Long compressionSavedMs;
+
+    // Última verificação: arquivos conferidos, divergentes/ausentes e vazão da leitura
+    @Column(name = "verified_files")
+    private Long verifiedFiles;
+
+    @Column(name = "verify_mismatches")
+    private Long verifyMismatches;
+
+    @Column(name = "verify_bytes")
+    private Long verifyBytes;
+
+    @Column(name = "verify_ms")
+    private Long verifyMs;
+
+    @Column(name = "verify_mb_per_sec", precision = 10, scale = 2)
+    private BigDecimal verifyMbPerSec;
+
+    @Column(name = "verified_at")
+    private LocalDateTime verifiedAt;
+
+    // Vazão média da cópia (bytes gravados no destino / tempo total; arquivos inalterados não contam)
+    @Column(name = "avg_mb_per_sec", precision = 10, scale = 2)
+    private BigDecimal avgMbPerSec;
+
+    // Progresso da execução, gravado só pelo ProgressPersister (o JPA não sobrescreve)
+    @Column(name = "processed_files", insertable = false, updatable = false)
+    private Long processedFiles;
+
+    @Column(name = "total_files", insertable = false, updatable = false)
+    private Long totalFiles;
+
+    @Column(name = "processed_bytes", insertable = false, updatable = false)
+    private Long processedBytes;
+
+    @Column(name = "total_bytes", insertable = false, updatable = false)
+    private Long totalBytes;
+
+    // Vazão instantânea (entre as duas últimas amostras) e suavizada (janela móvel, base do tempo restante)
+    @Column(name = "current_mb_per_sec", precision = 10, scale = 2, insertable = false, updatable = false)
+    private BigDecimal currentMbPerSec;
+
+    @Column(name = "window_mb_per_sec", precision = 10, scale = 2, insertable = false, updatable = false)
+    private BigDecimal windowMbPerSec;
+
+    @Column(name = "eta_seconds", insertable = false, updatable = false)
+    private Long etaSeconds;
+
+    @Column(name = "progress_updated_at", insertable = false, updatable = false)
+    private LocalDateTime progressUpdatedAt;
+
     @Column(name = "started_at")
     private LocalDateTime startedAt;
 
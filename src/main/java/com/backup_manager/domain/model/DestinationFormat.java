@@ -0,0 +1,7 @@
+package com.backup_manager.domain.model;
+
+public enum DestinationFormat {
+    PLAIN,
+    DEDUP,
+    PACKED
+}
@@ -0,0 +1,18 @@
+package com.backup_manager.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Entrada do manifesto de origem: caminho relativo à raiz do backup
+ * e os metadados lidos durante a varredura.
+ */
+@Getter
+@AllArgsConstructor
+public class ManifestEntry {
+
+    private String relativePath;
+    private long size;
+    private long lastModified;
+    private boolean directory;
+}
@@ -0,0 +1,15 @@
+package com.backup_manager.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+@Getter
+@AllArgsConstructor
+public class SkippedPath {
+
+    private WarningCode code;
+    private Path path;
+    private Throwable error;
+}
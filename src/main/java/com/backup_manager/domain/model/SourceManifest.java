@@ -0,0 +1,45 @@
+package com.backup_manager.domain.model;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma única varredura da origem.
+ * Tamanho, contagem, exclusões e plano de cópia saem daqui,
+ * sem percorrer a árvore novamente.
+ */
+@Getter
+public class SourceManifest {
+
+    private final Path root;
+    private final List<ManifestEntry> entries = new ArrayList<>();
+    private final List<SkippedPath> skipped = new ArrayList<>();
+    private long fileCount;
+    private long totalBytes;
+
+    public SourceManifest(Path root) {
+        this.root = root;
+    }
+
+    public void addEntry(ManifestEntry entry) {
+        entries.add(entry);
+        if (!entry.isDirectory()) {
+            fileCount++;
+            totalBytes += entry.getSize();
+        }
+    }
+
+    public void addSkipped(WarningCode code, Path path, Throwable error) {
+        skipped.add(new SkippedPath(code, path, error));
+    }
+
+    public BigDecimal getTotalSizeMB() {
+        double sizeInMB = totalBytes / (1024.0 * 1024.0);
+        return BigDecimal.valueOf(sizeInMB).setScale(2, RoundingMode.HALF_UP);
+    }
+}
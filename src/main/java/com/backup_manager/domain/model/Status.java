@@ -1,6 +1,7 @@
 package com.backup_manager.domain.model;
 
 public enum Status {
+    NA_FILA,
     EM_ANDAMENTO,
     PAUSADO,
     CONCLUIDO,
@@ -0,0 +1,24 @@
+package com.backup_manager.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class TaskProgressSnapshot {
+
+    private Long taskId;
+    private long processedFiles;
+    private long totalFiles;
+    private long processedBytes;
+    private long totalBytes;
+
+    // Vazão instantânea, vazão na janela móvel e tempo restante estimado; nulos sem amostras suficientes
+    private BigDecimal currentMbPerSec;
+    private BigDecimal windowMbPerSec;
+    private Long etaSeconds;
+    private LocalDateTime updatedAt;
+}
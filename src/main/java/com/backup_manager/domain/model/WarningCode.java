@@ -0,0 +1,32 @@
+package com.backup_manager.domain.model;
+
+/**
+ * Tipos de alerta gravados no warnings.log do destino.
+ */
+public enum WarningCode {
+    SKIPPED_DIR_LINK("Ignorado diretório simbólico/junction"),
+    SKIPPED_FILE_LINK("Ignorado arquivo simbólico/junction"),
+    VISIT_FAILED("Falha ao visitar arquivo/pasta"),
+    DIR_VISIT_FAILED("Erro ao visitar diretório"),
+    DIR_ACCESS_DENIED("Acesso negado ao diretório"),
+    DIR_CREATE_FAILED("Erro ao criar diretório destino"),
+    FILE_ACCESS_DENIED("Acesso negado ao arquivo"),
+    FILE_COPY_FAILED("Erro ao copiar arquivo"),
+    FILE_UNEXPECTED_ERROR("Erro inesperado ao copiar arquivo"),
+    DELETE_FAILED("Erro ao remover arquivo excluído da origem"),
+    FINISH_FAILED("Erro ao finalizar gravação no destino"),
+    VERIFY_MISMATCH("Conteúdo do destino difere da origem"),
+    VERIFY_MISSING("Arquivo do backup ausente no destino"),
+    VERIFY_SOURCE_CHANGED("Origem alterada desde o backup; não conferido"),
+    VERIFY_FAILED("Erro ao conferir arquivo");
+
+    private final String description;
+
+    WarningCode(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,98 @@
+package com.backup_manager.domain.service;
+
+import com.backup_manager.domain.exception.ActiveTaskConflictException;
+import com.backup_manager.domain.model.BackupTask;
+import com.backup_manager.infrastructure.persistence.BackupRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pares origem/destino com tarefa ativa (NA_FILA, EM_ANDAMENTO ou PAUSADO), mantidos em memória.
+ * O par é reservado antes de a tarefa ser gravada e só é liberado quando ela termina ou é
+ * cancelada sem thread rodando; a reserva é atômica, então dois /start simultâneos para o mesmo
+ * par não passam juntos. Reconstruído do banco na inicialização.
+ */
+@Component
+public class ActivePairRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivePairRegistry.class);
+
+    // Par reservado cuja tarefa ainda não tem id
+    private static final Long RESERVED = -1L;
+
+    private final Map<String, Long> active = new ConcurrentHashMap<>();
+    private final BackupRepository backupRepository;
+
+    public ActivePairRegistry(BackupRepository backupRepository) {
+        this.backupRepository = backupRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        active.clear();
+        for (BackupTask task : backupRepository.findByStatusIn(BackupRepository.ACTIVE_STATUSES)) {
+            Long holder = active.putIfAbsent(key(task.getSourcePath(), task.getDestinationPath()), task.getId());
+            if (holder != null) {
+                logger.warn("Tarefas {} e {} ativas para o mesmo par {} -> {}",
+                        holder, task.getId(), task.getSourcePath(), task.getDestinationPath());
+            }
+        }
+        logger.info("Pares ativos carregados: {}", active.size());
+    }
+
+    /**
+     * Reserva os pares das tarefas ainda não gravadas: todos ou nenhum.
+     *
+     * @throws ActiveTaskConflictException com a tarefa que ocupa o primeiro par já reservado
+     */
+    public void claim(List<BackupTask> tasks) {
+        List<String> claimed = new ArrayList<>(tasks.size());
+        for (BackupTask task : tasks) {
+            String key = key(task.getSourcePath(), task.getDestinationPath());
+            Long holder = active.putIfAbsent(key, RESERVED);
+            if (holder != null) {
+                claimed.forEach(k -> active.remove(k, RESERVED));
+                throw new ActiveTaskConflictException(task.getSourcePath(), task.getDestinationPath(),
+                        RESERVED.equals(holder) ? null : holder);
+            }
+            claimed.add(key);
+        }
+    }
+
+    // Associa as reservas às tarefas já gravadas
+    public void bind(List<BackupTask> tasks) {
+        for (BackupTask task : tasks) {
+            active.replace(key(task.getSourcePath(), task.getDestinationPath()), RESERVED, task.getId());
+        }
+    }
+
+    // Desfaz reservas que não chegaram a virar tarefa
+    public void unclaim(List<BackupTask> tasks) {
+        for (BackupTask task : tasks) {
+            active.remove(key(task.getSourcePath(), task.getDestinationPath()), RESERVED);
+        }
+    }
+
+    public void release(BackupTask task) {
+        if (active.remove(key(task.getSourcePath(), task.getDestinationPath()), task.getId())) {
+            logger.debug("Par liberado pela tarefa {}", task.getId());
+        }
+    }
+
+    public Optional<Long> activeTaskId(String sourcePath, String destinationPath) {
+        Long holder = active.get(key(sourcePath, destinationPath));
+        return holder == null || RESERVED.equals(holder) ? Optional.empty() : Optional.of(holder);
+    }
+
+    private static String key(String sourcePath, String destinationPath) {
+        return sourcePath + '\0' + destinationPath;
+    }
+}
@@ -6,8 +6,6 @@ import com.backup_manager.domain.exception.FolderNotFoundException;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * Classe responsável pelas regras de negócio relacionadas ao processo de backup.
@@ -38,40 +36,4 @@ public class BackupManager {
             throw new DestinationNotFoundException(destinationPath);
         }
     }
-
-    public BigDecimal calculateFolderSizeMB(File folder) {
-        long totalBytes = calculateFolderSize(folder);
-        double sizeInMB = totalBytes / (1024.0 * 1024.0);
-        return BigDecimal.valueOf(sizeInMB).setScale(2, RoundingMode.HALF_UP);
-    }
-
-    public long countFiles(File folder) {
-        File[] files = folder.listFiles();
-        if (files == null) return 0;
-
-        long count = 0;
-        for (File file : files) {
-            if (file.isFile()) {
-                count++;
-            } else if (file.isDirectory()) {
-                count += countFiles(file);
-            }
-        }
-        return count;
-    }
-
-    private long calculateFolderSize(File folder) {
-        File[] files = folder.listFiles();
-        if (files == null) return 0;
-
-        long total = 0;
-        for (File file : files) {
-            if (file.isFile()) {
-                total += file.length();
-            } else if (file.isDirectory()) {
-                total += calculateFolderSize(file);
-            }
-        }
-        return total;
-    }
 }
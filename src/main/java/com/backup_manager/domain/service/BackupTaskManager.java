@@ -12,29 +12,43 @@ import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
 
 @Component
 public class BackupTaskManager {
 
     private static final Logger logger = LoggerFactory.getLogger(BackupTaskManager.class);
 
-    private final Map<Long, AtomicReference<BackupTask>> runningTasks = new ConcurrentHashMap<>();
+    private final Map<Long, TaskControl> runningTasks = new ConcurrentHashMap<>();
     private final BackupRepository backupRepository;
+    private final ActivePairRegistry activePairs;
 
-    public BackupTaskManager(BackupRepository backupRepository) {
+    public BackupTaskManager(BackupRepository backupRepository, ActivePairRegistry activePairs) {
         this.backupRepository = backupRepository;
+        this.activePairs = activePairs;
     }
 
     public void registerTask(Long taskId, BackupTask task) {
-        runningTasks.put(taskId, new AtomicReference<>(task));
+        runningTasks.put(taskId, new TaskControl(task));
         logger.info("Tarefa registrada: ID={}, Status={}", taskId, task.getStatus());
     }
 
+    public boolean isRegistered(Long taskId) {
+        return runningTasks.containsKey(taskId);
+    }
+
+    public int getRunningCount() {
+        return runningTasks.size();
+    }
+
+    // Sinal de pausa/cancelamento lido pelos workers; nulo se a tarefa não está rodando
+    public TaskControl getControl(Long taskId) {
+        return runningTasks.get(taskId);
+    }
+
     public BackupTask getTask(Long taskId) {
-        AtomicReference<BackupTask> ref = runningTasks.get(taskId);
-        if (ref != null) {
-            return ref.get();
+        TaskControl control = runningTasks.get(taskId);
+        if (control != null) {
+            return control.getTask();
         }
 
         // Se não está na memória, busca do banco
@@ -89,8 +103,11 @@ public class BackupTaskManager {
                         v.getStatus(), v.getPausedAt());
             }
 
-            // Atualiza memória
-            runningTasks.put(taskId, new AtomicReference<>(dbTask));
+            // Avisa os workers
+            TaskControl control = runningTasks.get(taskId);
+            if (control != null) {
+                control.pause();
+            }
 
             return true;
 
@@ -130,7 +147,11 @@ public class BackupTaskManager {
 
             logger.info("RESUME salvo: ID={}, Status={}", taskId, dbTask.getStatus());
 
-            runningTasks.put(taskId, new AtomicReference<>(dbTask));
+            // Acorda os workers parados na pausa
+            TaskControl control = runningTasks.get(taskId);
+            if (control != null) {
+                control.resume();
+            }
 
             return true;
 
@@ -154,7 +175,8 @@ public class BackupTaskManager {
             BackupTask dbTask = dbTaskOpt.get();
 
             if (dbTask.getStatus() != Status.EM_ANDAMENTO &&
-                    dbTask.getStatus() != Status.PAUSADO) {
+                    dbTask.getStatus() != Status.PAUSADO &&
+                    dbTask.getStatus() != Status.NA_FILA) {
                 logger.warn("Tarefa {} não pode ser cancelada. Status: {}",
                         taskId, dbTask.getStatus());
                 return false;
@@ -176,7 +198,13 @@ public class BackupTaskManager {
 
             logger.info("CANCEL salvo: ID={}, Status={}", taskId, dbTask.getStatus());
 
-            runningTasks.remove(taskId);
+            // A thread da tarefa se remove do gerenciador e libera o par ao terminar
+            TaskControl control = runningTasks.get(taskId);
+            if (control != null) {
+                control.cancel();
+            } else {
+                activePairs.release(dbTask);
+            }
 
             return true;
 
@@ -194,12 +222,7 @@ public class BackupTaskManager {
     // Método para debug
     public void logMemoryTasks() {
         logger.info("Tarefas na memória: {}", runningTasks.size());
-        runningTasks.forEach((id, ref) -> {
-            BackupTask task = ref.get();
-            if (task != null) {
-                logger.info("  ID={}, Status={}, Paused={}, Cancelled={}",
-                        id, task.getStatus(), task.isPaused(), task.isCancelled());
-            }
-        });
+        runningTasks.forEach((id, control) -> logger.info("  ID={}, Status={}, Paused={}, Cancelled={}",
+                id, control.getTask().getStatus(), control.isPaused(), control.isCancelled()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.backup_manager.domain.service;
+
+import com.backup_manager.domain.model.BackupOptions;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regras de inclusão/exclusão de uma tarefa, compiladas uma vez antes da varredura.
+ *
+ * <ul>
+ *   <li>nome simples ("node_modules"): qualquer item com exatamente esse nome</li>
+ *   <li>glob sem barra ("*.tmp"): comparado com o nome do item</li>
+ *   <li>glob com barra ("build/**"): comparado com o caminho relativo à origem</li>
+ *   <li>"regex:...": comparado com o caminho relativo à origem</li>
+ * </ul>
+ *
+ * Diretórios excluídos são podados inteiros. Inclusões e filtros de tamanho/idade
+ * valem só para arquivos.
+ */
+public class PathFilter {
+
+    private static final String REGEX_PREFIX = "regex:";
+    private static final String GLOB_PREFIX = "glob:";
+
+    private final Rules excludes;
+    private final Rules includes;
+    private final Long minSize;
+    private final Long maxSize;
+    private final long modifiedAfter;
+
+    private PathFilter(Rules excludes, Rules includes, Long minSize, Long maxSize, long modifiedAfter) {
+        this.excludes = excludes;
+        this.includes = includes;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.modifiedAfter = modifiedAfter;
+    }
+
+    /**
+     * @throws IllegalArgumentException se alguma regra for inválida
+     */
+    public static PathFilter compile(List<String> defaultExcludes, BackupOptions options) {
+        List<String> exclude = new ArrayList<>(defaultExcludes);
+        if (options.getExclude() != null) {
+            exclude.addAll(options.getExclude());
+        }
+
+        long modifiedAfter = options.getMaxAgeDays() != null
+                ? System.currentTimeMillis() - TimeUnit.DAYS.toMillis(options.getMaxAgeDays())
+                : Long.MIN_VALUE;
+
+        return new PathFilter(
+                Rules.compile(exclude),
+                Rules.compile(options.getInclude() != null ? options.getInclude() : List.of()),
+                options.getMinSize(),
+                options.getMaxSize(),
+                modifiedAfter
+        );
+    }
+
+    public boolean skipDirectory(Path relativePath) {
+        return excludes.matches(relativePath);
+    }
+
+    public boolean acceptFile(Path relativePath, BasicFileAttributes attrs) {
+        if (excludes.matches(relativePath)) return false;
+        if (!includes.isEmpty() && !includes.matches(relativePath)) return false;
+        if (minSize != null && attrs.size() < minSize) return false;
+        if (maxSize != null && attrs.size() > maxSize) return false;
+        return attrs.lastModifiedTime().toMillis() >= modifiedAfter;
+    }
+
+    private static class Rules {
+
+        private final Set<String> names = new HashSet<>();
+        private final List<PathMatcher> nameMatchers = new ArrayList<>();
+        private final List<PathMatcher> pathMatchers = new ArrayList<>();
+
+        static Rules compile(List<String> rules) {
+            FileSystem fs = FileSystems.getDefault();
+            Rules compiled = new Rules();
+            for (String raw : rules) {
+                String rule = raw == null ? "" : raw.trim();
+                if (rule.isEmpty()) {
+                    continue;
+                }
+                if (rule.startsWith(REGEX_PREFIX)) {
+                    compiled.pathMatchers.add(fs.getPathMatcher(rule));
+                    continue;
+                }
+                String glob = rule.startsWith(GLOB_PREFIX) ? rule.substring(GLOB_PREFIX.length()) : rule;
+                if (glob.indexOf('/') >= 0) {
+                    compiled.pathMatchers.add(fs.getPathMatcher(GLOB_PREFIX + glob));
+                } else if (isLiteral(glob)) {
+                    compiled.names.add(glob);
+                } else {
+                    compiled.nameMatchers.add(fs.getPathMatcher(GLOB_PREFIX + glob));
+                }
+            }
+            return compiled;
+        }
+
+        boolean isEmpty() {
+            return names.isEmpty() && nameMatchers.isEmpty() && pathMatchers.isEmpty();
+        }
+
+        boolean matches(Path relativePath) {
+            Path name = relativePath.getFileName();
+            if (name == null) {
+                return false;
+            }
+            if (names.contains(name.toString())) {
+                return true;
+            }
+            for (PathMatcher matcher : nameMatchers) {
+                if (matcher.matches(name)) return true;
+            }
+            for (PathMatcher matcher : pathMatchers) {
+                if (matcher.matches(relativePath)) return true;
+            }
+            return false;
+        }
+
+        private static boolean isLiteral(String glob) {
+            for (char c : glob.toCharArray()) {
+                if ("*?[]{}\\".indexOf(c) >= 0) return false;
+            }
+            return true;
+        }
+    }
+}
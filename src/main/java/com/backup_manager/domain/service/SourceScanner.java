@@ -0,0 +1,104 @@
+package com.backup_manager.domain.service;
+
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.ManifestEntry;
+import com.backup_manager.domain.model.SourceManifest;
+import com.backup_manager.domain.model.WarningCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * Percorre a origem uma única vez e monta o {@link SourceManifest}
+ * usado para tamanho, contagem e plano de cópia.
+ * Diretórios excluídos pelo {@link PathFilter} não chegam a ser listados.
+ */
+@Component
+public class SourceScanner {
+
+    private final List<String> defaultExcludes;
+
+    public SourceScanner(
+            @Value("${backup.scan.default-excludes:AppData,Ambiente de Impressão,Meus Vídeos,Links,Saved Games,"
+                    + "Searches,Favorites,MicrosoftEdgeBackups}") List<String> defaultExcludes
+    ) {
+        this.defaultExcludes = defaultExcludes;
+    }
+
+    public SourceManifest scan(Path source) throws IOException {
+        return scan(source, BackupOptions.defaults());
+    }
+
+    public SourceManifest scan(Path source, BackupOptions options) throws IOException {
+        SourceManifest manifest = new SourceManifest(source);
+        PathFilter filter = PathFilter.compile(defaultExcludes, options);
+
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (dir.equals(source)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (isLinkOrOther(attrs)) {
+                    manifest.addSkipped(WarningCode.SKIPPED_DIR_LINK, dir, null);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                if (filter.skipDirectory(source.relativize(dir))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                manifest.addEntry(toEntry(dir, attrs, true));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (isLinkOrOther(attrs)) {
+                    manifest.addSkipped(WarningCode.SKIPPED_FILE_LINK, file, null);
+                    return FileVisitResult.CONTINUE;
+                }
+                if (!filter.acceptFile(source.relativize(file), attrs)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                manifest.addEntry(toEntry(file, attrs, false));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                manifest.addSkipped(WarningCode.VISIT_FAILED, file, exc);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                if (exc != null) {
+                    manifest.addSkipped(WarningCode.DIR_VISIT_FAILED, dir, exc);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            private ManifestEntry toEntry(Path path, BasicFileAttributes attrs, boolean directory) {
+                return new ManifestEntry(
+                        source.relativize(path).toString(),
+                        directory ? 0 : attrs.size(),
+                        attrs.lastModifiedTime().toMillis(),
+                        directory
+                );
+            }
+        });
+
+        return manifest;
+    }
+
+    private static boolean isLinkOrOther(BasicFileAttributes attrs) {
+        return attrs.isOther() || attrs.isSymbolicLink();
+    }
+}
@@ -0,0 +1,88 @@
+package com.backup_manager.domain.service;
+
+import com.backup_manager.domain.model.BackupTask;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sinal de controle de uma tarefa em execução, compartilhado entre o {@link BackupTaskManager}
+ * (que recebe pausa, retomada e cancelamento) e os workers de cópia.
+ * No caminho quente os workers só leem o estado; enquanto pausados, ficam bloqueados
+ * até a retomada ou o cancelamento, que os acordam na hora.
+ */
+public class TaskControl {
+
+    private static final int RUNNING = 0;
+    private static final int PAUSED = 1;
+    private static final int CANCELLED = 2;
+
+    private final BackupTask task;
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    public TaskControl(BackupTask task) {
+        this.task = task;
+    }
+
+    public BackupTask getTask() {
+        return task;
+    }
+
+    public boolean isRunning() {
+        return state.get() == RUNNING;
+    }
+
+    public boolean isPaused() {
+        return state.get() == PAUSED;
+    }
+
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+
+    public boolean pause() {
+        return state.compareAndSet(RUNNING, PAUSED);
+    }
+
+    public boolean resume() {
+        if (state.compareAndSet(PAUSED, RUNNING)) {
+            signalAll();
+            return true;
+        }
+        return false;
+    }
+
+    public void cancel() {
+        state.set(CANCELLED);
+        signalAll();
+    }
+
+    /**
+     * Bloqueia enquanto a tarefa estiver pausada.
+     *
+     * @return true se voltou a rodar, false se foi cancelada
+     */
+    public boolean awaitResume() throws InterruptedException {
+        lock.lock();
+        try {
+            while (state.get() == PAUSED) {
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return state.get() == RUNNING;
+    }
+
+    private void signalAll() {
+        lock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
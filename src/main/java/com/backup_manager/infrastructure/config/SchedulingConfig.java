@@ -0,0 +1,13 @@
+package com.backup_manager.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Liga os métodos {@code @Scheduled} da aplicação: coleta de lixo dos stores (DEDUP e PACKED)
+ * e gravação periódica do progresso das tarefas.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
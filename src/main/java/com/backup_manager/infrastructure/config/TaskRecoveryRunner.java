@@ -0,0 +1,28 @@
+package com.backup_manager.infrastructure.config;
+
+import com.backup_manager.application.service.BackupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TaskRecoveryRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskRecoveryRunner.class);
+    private final BackupService backupService;
+
+    public TaskRecoveryRunner(BackupService backupService) {
+        this.backupService = backupService;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            logger.info("Verificando tarefas interrompidas...");
+            backupService.recoverInterruptedTasks();
+        } catch (Exception e) {
+            logger.error("Erro ao recuperar tarefas interrompidas: {}", e.getMessage());
+        }
+    }
+}
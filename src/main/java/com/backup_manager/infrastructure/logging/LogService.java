@@ -42,13 +42,13 @@ public class LogService {
 
         Optional<BackupTask> lastOk = backupRepository.findTopByStatusOrderByFinishedAtDesc(Status.CONCLUIDO);
         if (lastOk.isPresent()) {
-            Path fromDb = Path.of(lastOk.get().getDestinationPath(), "warnings.log");
+            Path fromDb = Path.of(lastOk.get().getDestinationPath(), WarningLog.FILE_NAME);
             if (Files.exists(fromDb)) return fromDb;
         }
 
         Optional<BackupTask> lastAny = backupRepository.findTopByOrderByFinishedAtDesc();
         if (lastAny.isPresent()) {
-            Path fromDbAny = Path.of(lastAny.get().getDestinationPath(), "warnings.log");
+            Path fromDbAny = Path.of(lastAny.get().getDestinationPath(), WarningLog.FILE_NAME);
             if (Files.exists(fromDbAny)) return fromDbAny;
         }
 
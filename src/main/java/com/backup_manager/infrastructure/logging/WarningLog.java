@@ -0,0 +1,180 @@
+package com.backup_manager.infrastructure.logging;
+
+import com.backup_manager.domain.model.WarningCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * warnings.log de uma tarefa. Os workers só enfileiram o alerta; uma thread virtual
+ * mantém o arquivo aberto e grava em lotes, com um flush por lote.
+ * Cada linha é um registro separado por tabulação:
+ *
+ * <pre>
+ * data/hora  código  exceção  descrição  caminho
+ * </pre>
+ *
+ * A thread e o arquivo só são criados no primeiro alerta. O {@link #close()} espera os alertas
+ * em curso entrarem na fila e o gravador esvaziá-la; alertas que chegam depois disso são
+ * gravados direto no arquivo, sem passar pela fila.
+ */
+public class WarningLog implements WarningSink, Closeable {
+
+    public static final String FILE_NAME = "warnings.log";
+
+    private static final Logger logger = LoggerFactory.getLogger(WarningLog.class);
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 512;
+    private static final String[] STOP = new String[0];
+
+    private final Path file;
+    private final BlockingQueue<String[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Map<WarningCode, LongAdder> counts = new EnumMap<>(WarningCode.class);
+    private final LongAdder total = new LongAdder();
+    // Leitura: alertas enfileirando; escrita: close encerrando o gravador
+    private final ReadWriteLock state = new ReentrantReadWriteLock();
+    private Thread writer;
+    private boolean closed;
+
+    public WarningLog(Path file) {
+        this.file = file;
+        for (WarningCode code : WarningCode.values()) {
+            counts.put(code, new LongAdder());
+        }
+    }
+
+    @Override
+    public void warn(WarningCode code, Path path, Throwable error) {
+        counts.get(code).increment();
+        total.increment();
+        logger.debug("{}: {}", code.getDescription(), path);
+
+        String[] record = {
+                LocalDateTime.now().toString(),
+                code.name(),
+                error != null ? error.getClass().getSimpleName() : "",
+                code.getDescription(),
+                String.valueOf(path)
+        };
+        state.readLock().lock();
+        try {
+            if (!closed) {
+                startWriter();
+                // Fila cheia segura o worker até o gravador alcançar
+                queue.put(record);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            state.readLock().unlock();
+        }
+        append(record);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    // Só tipos que ocorreram
+    public Map<WarningCode, Long> getCounts() {
+        Map<WarningCode, Long> result = new EnumMap<>(WarningCode.class);
+        counts.forEach((code, count) -> {
+            if (count.sum() > 0) {
+                result.put(code, count.sum());
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void close() {
+        state.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (writer != null) {
+                queue.put(STOP);
+                writer.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            state.writeLock().unlock();
+        }
+    }
+
+    private synchronized void startWriter() {
+        if (writer == null) {
+            writer = Thread.ofVirtual().name("warnings-" + file.getParent().getFileName()).start(this::drain);
+        }
+    }
+
+    // Depois do close o gravador já terminou: cada alerta atrasado abre, grava e fecha o arquivo
+    private synchronized void append(String[] record) {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(String.join("\t", record));
+            out.newLine();
+        } catch (IOException e) {
+            logger.warn("Erro ao gravar {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void drain() {
+        List<String[]> batch = new ArrayList<>(BATCH_SIZE);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (String[] record : batch) {
+                    if (record == STOP) {
+                        out.flush();
+                        return;
+                    }
+                    out.write(String.join("\t", record));
+                    out.newLine();
+                }
+                out.flush();
+                batch.clear();
+            }
+        } catch (IOException e) {
+            logger.warn("Erro ao gravar {}: {}", file, e.getMessage());
+            discardUntilStop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Sem arquivo, continua consumindo para não travar os workers
+    private void discardUntilStop() {
+        try {
+            while (queue.take() != STOP) {
+                // descarta
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
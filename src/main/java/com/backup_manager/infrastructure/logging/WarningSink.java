@@ -0,0 +1,17 @@
+package com.backup_manager.infrastructure.logging;
+
+import com.backup_manager.domain.model.WarningCode;
+
+import java.nio.file.Path;
+
+/**
+ * Destino dos alertas gerados durante a cópia.
+ */
+@FunctionalInterface
+public interface WarningSink {
+
+    /**
+     * @param error exceção que originou o alerta; pode ser nula
+     */
+    void warn(WarningCode code, Path path, Throwable error);
+}
@@ -0,0 +1,15 @@
+package com.backup_manager.infrastructure.persistence;
+
+import com.backup_manager.application.dto.BackupResponse;
+
+import java.util.List;
+
+public interface BackupHistoryRepository {
+
+    /**
+     * Página do histórico, da tarefa mais recente para a mais antiga (paginação por chave).
+     *
+     * @param beforeId cursor: só tarefas com id menor; nulo para a primeira página
+     */
+    List<BackupResponse> findHistory(HistoryFilter filter, Long beforeId, int limit);
+}
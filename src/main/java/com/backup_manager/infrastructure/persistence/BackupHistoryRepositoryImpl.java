@@ -0,0 +1,61 @@
+package com.backup_manager.infrastructure.persistence;
+
+import com.backup_manager.application.dto.BackupResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consulta do histórico montada só com os filtros informados, para que o banco use
+ * os índices (id, status + id, origem + id, início). A projeção e a duração saem
+ * prontas do SQL, sem carregar as entidades.
+ */
+public class BackupHistoryRepositoryImpl implements BackupHistoryRepository {
+
+    private static final String SELECT = """
+            SELECT new com.backup_manager.application.dto.BackupResponse(
+                b.id, b.sourcePath, b.destinationPath, b.status, b.errorMessage, b.fileCount, b.totalSizeMB,
+                b.startedAt, b.finishedAt, b.pausedAt,
+                cast(extract(epoch from b.finishedAt) - extract(epoch from b.startedAt) as Long))
+            FROM BackupTask b
+            WHERE 1 = 1""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BackupResponse> findHistory(HistoryFilter filter, Long beforeId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        Map<String, Object> params = new HashMap<>();
+
+        if (beforeId != null) {
+            jpql.append(" AND b.id < :beforeId");
+            params.put("beforeId", beforeId);
+        }
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            jpql.append(" AND b.status IN :statuses");
+            params.put("statuses", filter.getStatuses());
+        }
+        if (filter.getSourcePath() != null && !filter.getSourcePath().isBlank()) {
+            jpql.append(" AND b.sourcePath = :sourcePath");
+            params.put("sourcePath", filter.getSourcePath());
+        }
+        if (filter.getStartedFrom() != null) {
+            jpql.append(" AND b.startedAt >= :startedFrom");
+            params.put("startedFrom", filter.getStartedFrom());
+        }
+        if (filter.getStartedTo() != null) {
+            jpql.append(" AND b.startedAt < :startedTo");
+            params.put("startedTo", filter.getStartedTo());
+        }
+        jpql.append(" ORDER BY b.id DESC");
+
+        TypedQuery<BackupResponse> query = entityManager.createQuery(jpql.toString(), BackupResponse.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
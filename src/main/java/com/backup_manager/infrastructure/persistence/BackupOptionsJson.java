@@ -0,0 +1,35 @@
+package com.backup_manager.infrastructure.persistence;
+
+import com.backup_manager.domain.model.BackupOptions;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Optional;
+
+/**
+ * Opções da tarefa gravadas na coluna options_json, para que uma tarefa recuperada
+ * depois de um reinício rode com a mesma configuração com que foi enfileirada.
+ */
+public final class BackupOptionsJson {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private BackupOptionsJson() {
+    }
+
+    public static String write(BackupOptions options) {
+        return MAPPER.writeValueAsString(options);
+    }
+
+    // Vazio quando a coluna está nula (tarefa anterior à coluna) ou ilegível
+    public static Optional<BackupOptions> read(String json) {
+        if (json == null || json.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(MAPPER.readValue(json, BackupOptions.class));
+        } catch (JacksonException e) {
+            return Optional.empty();
+        }
+    }
+}
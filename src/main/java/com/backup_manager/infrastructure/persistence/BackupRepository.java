@@ -1,6 +1,7 @@
 package com.backup_manager.infrastructure.persistence;
 
 import com.backup_manager.domain.model.BackupTask;
+import com.backup_manager.domain.model.DestinationFormat;
 import com.backup_manager.domain.model.Status;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -9,15 +10,21 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 
-public interface BackupRepository extends JpaRepository<BackupTask, Long> {
+public interface BackupRepository extends JpaRepository<BackupTask, Long>, BackupHistoryRepository,
+        BackupTaskBatchRepository {
+
+    List<Status> ACTIVE_STATUSES = List.of(Status.NA_FILA, Status.EM_ANDAMENTO, Status.PAUSADO);
 
     Optional<BackupTask> findTopByStatusOrderByFinishedAtDesc(Status status);
     Optional<BackupTask> findTopByOrderByFinishedAtDesc();
 
     List<BackupTask> findBySourcePathAndDestinationPathOrderByIdDesc(String sourcePath, String destinationPath);
 
-    @Query("SELECT b FROM BackupTask b WHERE b.status IN :statuses")
+    @Query("SELECT b FROM BackupTask b WHERE b.status IN :statuses ORDER BY b.id")
     List<BackupTask> findByStatusIn(@Param("statuses") List<Status> statuses);
 
     List<BackupTask> findByStatus(Status status);
+
+    @Query("SELECT DISTINCT b.destinationPath FROM BackupTask b WHERE b.destinationFormat = :format")
+    List<String> findDestinationPathsByFormat(@Param("format") DestinationFormat format);
 }
\ No newline at end of file
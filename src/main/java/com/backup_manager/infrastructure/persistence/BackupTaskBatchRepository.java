@@ -0,0 +1,20 @@
+package com.backup_manager.infrastructure.persistence;
+
+import com.backup_manager.domain.model.BackupTask;
+import com.backup_manager.domain.model.TaskProgressSnapshot;
+
+import java.util.List;
+
+public interface BackupTaskBatchRepository {
+
+    /**
+     * Grava as tarefas novas em um único lote JDBC e preenche o id gerado de cada uma.
+     */
+    void insertQueued(List<BackupTask> tasks);
+
+    /**
+     * Grava o progresso de várias tarefas em um único lote. Tarefas que já saíram de
+     * EM_ANDAMENTO/PAUSADO não são alteradas.
+     */
+    void updateProgress(List<TaskProgressSnapshot> snapshots);
+}
@@ -0,0 +1,108 @@
+package com.backup_manager.infrastructure.persistence;
+
+import com.backup_manager.domain.model.BackupTask;
+import com.backup_manager.domain.model.TaskProgressSnapshot;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserção em lote sem passar pelo Hibernate, que não agrupa inserts com id IDENTITY:
+ * um único executeBatch devolve todos os ids gerados, na ordem das tarefas.
+ */
+public class BackupTaskBatchRepositoryImpl implements BackupTaskBatchRepository {
+
+    private static final String INSERT = """
+            INSERT INTO backup_tasks (source_path, destination_path, status, destination_format, options_json,
+                                      started_at, is_paused, is_cancelled)
+            VALUES (?, ?, ?, ?, ?, ?, FALSE, FALSE)""";
+
+    // O filtro de status impede que um lote atrasado sobrescreva o progresso final
+    private static final String UPDATE_PROGRESS = """
+            UPDATE backup_tasks
+            SET processed_files = ?, total_files = ?, processed_bytes = ?, total_bytes = ?, current_mb_per_sec = ?,
+                window_mb_per_sec = ?, eta_seconds = ?, progress_updated_at = ?
+            WHERE id = ? AND status IN ('EM_ANDAMENTO', 'PAUSADO')""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BackupTaskBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void insertQueued(List<BackupTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        // Mesmo preenchimento do @PrePersist da entidade
+        LocalDateTime now = LocalDateTime.now();
+        tasks.forEach(task -> {
+            if (task.getStartedAt() == null) {
+                task.setStartedAt(now);
+            }
+        });
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        BackupTask task = tasks.get(i);
+                        ps.setString(1, task.getSourcePath());
+                        ps.setString(2, task.getDestinationPath());
+                        ps.setString(3, task.getStatus().name());
+                        ps.setString(4, task.getDestinationFormat() != null ? task.getDestinationFormat().name() : null);
+                        ps.setString(5, task.getOptionsJson());
+                        ps.setTimestamp(6, Timestamp.valueOf(task.getStartedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tasks.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != tasks.size()) {
+            throw new IllegalStateException("Lote gravou " + generated.size() + " de " + tasks.size() + " tarefas");
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            // O nome da coluna devolvida varia com o driver (id/ID)
+            tasks.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    @Override
+    public void updateProgress(List<TaskProgressSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(snapshots.size());
+        for (TaskProgressSnapshot snapshot : snapshots) {
+            rows.add(new Object[]{
+                    snapshot.getProcessedFiles(),
+                    snapshot.getTotalFiles(),
+                    snapshot.getProcessedBytes(),
+                    snapshot.getTotalBytes(),
+                    snapshot.getCurrentMbPerSec(),
+                    snapshot.getWindowMbPerSec(),
+                    snapshot.getEtaSeconds(),
+                    Timestamp.valueOf(snapshot.getUpdatedAt()),
+                    snapshot.getTaskId()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPDATE_PROGRESS, rows);
+    }
+}
@@ -0,0 +1,23 @@
+package com.backup_manager.infrastructure.persistence;
+
+import com.backup_manager.domain.model.Status;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filtros do histórico; campos nulos não filtram.
+ */
+@Getter
+@Setter
+public class HistoryFilter {
+
+    private List<Status> statuses;
+    private String sourcePath;
+
+    // Início da tarefa em [startedFrom, startedTo)
+    private LocalDateTime startedFrom;
+    private LocalDateTime startedTo;
+}
@@ -0,0 +1,148 @@
+package com.backup_manager.infrastructure.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Diário append-only de uma tarefa, gravado no destino enquanto ela roda.
+ * Se a aplicação cair no meio do backup, a próxima execução da mesma tarefa
+ * pula os arquivos concluídos e retoma arquivos grandes do último bloco confirmado.
+ *
+ * <pre>
+ * F\tcaminho               arquivo concluído
+ * C\toffset\tcaminho       arquivo grande gravado em disco até offset
+ * </pre>
+ *
+ * O diário é apagado quando a tarefa termina (concluída, cancelada ou com falha).
+ * PLAIN e PACKED usam o diário (no PACKED, os itens concluídos são reaproveitados do índice
+ * parcial da própria tarefa). DEDUP monta o manifesto num arquivo parcial que não é retomado, e
+ * pular arquivos o deixaria incompleto; a tarefa recebe {@link #disabled()}, que não grava nada.
+ */
+public class BackupJournal implements Closeable {
+
+    public static final String FILE_PREFIX = ".backup-journal-";
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final Path file;
+    private final Set<String> completed = new HashSet<>();
+    private final Map<String, Long> chunkOffsets = new HashMap<>();
+    private final boolean resumed;
+    private final BufferedWriter out;
+    private int pending;
+
+    private BackupJournal() {
+        this.file = null;
+        this.resumed = false;
+        this.out = null;
+    }
+
+    private BackupJournal(Path file) throws IOException {
+        this.file = file;
+        this.resumed = Files.exists(file);
+        if (resumed) {
+            load();
+        }
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public static Path pathFor(Path destination, Long taskId) {
+        return destination.resolve(FILE_PREFIX + taskId);
+    }
+
+    /**
+     * Abre o diário da tarefa. Se já existir (execução interrompida), carrega o que foi concluído.
+     */
+    public static BackupJournal open(Path destination, Long taskId) throws IOException {
+        return new BackupJournal(pathFor(destination, taskId));
+    }
+
+    // Diário que não grava nada: a tarefa sempre recomeça do zero
+    public static BackupJournal disabled() {
+        return new BackupJournal();
+    }
+
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    public Set<String> getCompleted() {
+        return completed;
+    }
+
+    public long chunkOffset(String relativePath) {
+        return chunkOffsets.getOrDefault(relativePath, 0L);
+    }
+
+    public synchronized void fileDone(String relativePath) throws IOException {
+        if (out == null) {
+            return;
+        }
+        out.write("F\t");
+        out.write(relativePath);
+        out.newLine();
+        if (++pending >= FLUSH_EVERY) {
+            out.flush();
+            pending = 0;
+        }
+    }
+
+    // Chamado depois que os dados até offset foram forçados para o disco
+    public synchronized void chunkDone(String relativePath, long offset) throws IOException {
+        if (out == null) {
+            return;
+        }
+        out.write("C\t" + offset + "\t");
+        out.write(relativePath);
+        out.newLine();
+        out.flush();
+        pending = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+
+    public void delete() throws IOException {
+        close();
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void load() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("F\t")) {
+                    String path = line.substring(2);
+                    completed.add(path);
+                    chunkOffsets.remove(path);
+                } else if (line.startsWith("C\t")) {
+                    String[] parts = line.split("\t", 3);
+                    if (parts.length == 3) {
+                        try {
+                            chunkOffsets.put(parts[2], Long.parseLong(parts[1]));
+                        } catch (NumberFormatException ignored) {
+                            // Última linha pode ter ficado pela metade na queda
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.backup_manager.infrastructure.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento endereçado por conteúdo dentro do destino.
+ *
+ * <pre>
+ * destino/.store/chunks/ab/abcdef...   blocos de até {@link #CHUNK_SIZE} bytes, nomeados pelo SHA-256
+ * destino/.store/manifests/*.manifest  um manifesto por backup apontando para os blocos
+ * </pre>
+ *
+ * O manifesto começa com "# source=origem" e segue com uma linha por item:
+ * "tipo\ttamanho\tmtime\tbloco1,bloco2,...\tcaminho", tipo D ou F.
+ * Manifestos de backups interrompidos ficam com a extensão .partial.
+ */
+public class ChunkStore {
+
+    public static final String STORE_DIR = ".store";
+    public static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    public static final String MANIFEST_SUFFIX = ".manifest";
+    public static final String PARTIAL_SUFFIX = ".partial";
+    public static final String SOURCE_HEADER = "# source=";
+
+    private final Path root;
+    private final Path chunksDir;
+    private final Path manifestsDir;
+
+    public ChunkStore(Path destination) {
+        this.root = destination.resolve(STORE_DIR);
+        this.chunksDir = root.resolve("chunks");
+        this.manifestsDir = root.resolve("manifests");
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public Path getManifestsDir() {
+        return manifestsDir;
+    }
+
+    public void init() throws IOException {
+        Files.createDirectories(chunksDir);
+        Files.createDirectories(manifestsDir);
+    }
+
+    public boolean exists() {
+        return Files.isDirectory(chunksDir) && Files.isDirectory(manifestsDir);
+    }
+
+    /**
+     * Grava o bloco se ainda não existir no store.
+     *
+     * @return hash do bloco
+     */
+    public String put(byte[] data, int length) throws IOException {
+        String hash = hash(data, length);
+        Path chunk = chunkPath(hash);
+        if (Files.exists(chunk)) {
+            return hash;
+        }
+
+        Path dir = chunk.getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, hash, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                out.write(data, 0, length);
+            }
+            Files.move(tmp, chunk, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Outro worker gravou o mesmo conteúdo primeiro
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return hash;
+    }
+
+    public Path chunkPath(String hash) {
+        return chunksDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public Path newManifestPath(String name) {
+        return manifestsDir.resolve(name + PARTIAL_SUFFIX);
+    }
+
+    // Manifestos concluídos, do mais antigo para o mais recente
+    public List<Path> listManifests() throws IOException {
+        return listManifestFiles(MANIFEST_SUFFIX);
+    }
+
+    public List<Path> listPartialManifests() throws IOException {
+        return listManifestFiles(PARTIAL_SUFFIX);
+    }
+
+    public List<StoredEntry> readManifest(Path manifest) throws IOException {
+        List<StoredEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) continue;
+                String[] parts = line.split("\t", 5);
+                if (parts.length < 5) continue;
+                entries.add(new StoredEntry(
+                        "D".equals(parts[0]),
+                        Long.parseLong(parts[1]),
+                        Long.parseLong(parts[2]),
+                        parts[3].isEmpty() ? List.of() : Arrays.asList(parts[3].split(",")),
+                        parts[4]
+                ));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Manifesto corrompido: " + manifest, e);
+        }
+        return entries;
+    }
+
+    public String readSource(Path manifest) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            String first = reader.readLine();
+            return first != null && first.startsWith(SOURCE_HEADER)
+                    ? first.substring(SOURCE_HEADER.length())
+                    : null;
+        }
+    }
+
+    public static String formatLine(StoredEntry entry) {
+        return (entry.isDirectory() ? "D" : "F") + '\t'
+                + entry.getSize() + '\t'
+                + entry.getLastModified() + '\t'
+                + String.join(",", entry.getChunks()) + '\t'
+                + entry.getRelativePath();
+    }
+
+    /**
+     * Reconstrói a árvore original de um manifesto em um diretório comum.
+     *
+     * @return quantidade de arquivos restaurados
+     */
+    public long restore(Path manifest, Path target) throws IOException {
+        long restored = 0;
+        for (StoredEntry entry : readManifest(manifest)) {
+            Path out = target.resolve(entry.getRelativePath());
+            if (entry.isDirectory()) {
+                Files.createDirectories(out);
+                continue;
+            }
+            Files.createDirectories(out.getParent());
+            try (OutputStream os = Files.newOutputStream(out)) {
+                for (String hash : entry.getChunks()) {
+                    Files.copy(chunkPath(hash), os);
+                }
+            }
+            Files.setLastModifiedTime(out, FileTime.fromMillis(entry.getLastModified()));
+            restored++;
+        }
+        return restored;
+    }
+
+    public Stream<Path> walkChunks() throws IOException {
+        if (!Files.isDirectory(chunksDir)) {
+            return Stream.empty();
+        }
+        return Files.walk(chunksDir).filter(Files::isRegularFile);
+    }
+
+    private List<Path> listManifestFiles(String suffix) throws IOException {
+        if (!Files.isDirectory(manifestsDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(manifestsDir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(suffix))
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    private static String hash(byte[] data, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data, 0, length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredEntry {
+
+        private boolean directory;
+        private long size;
+        private long lastModified;
+        private List<String> chunks;
+        private String relativePath;
+    }
+}
@@ -0,0 +1,171 @@
+package com.backup_manager.infrastructure.storage;
+
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.ManifestEntry;
+import com.backup_manager.infrastructure.storage.ChunkStore.StoredEntry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Grava o backup no {@link ChunkStore} do destino: o conteúdo de cada arquivo
+ * vira blocos endereçados por hash e o backup é descrito por um manifesto próprio.
+ * Conteúdo repetido entre arquivos, origens e execuções é gravado uma única vez.
+ */
+public class ChunkStoreWriter implements DestinationWriter {
+
+    private final ChunkStore store;
+    private final Lock storeLock;
+    private final Path manifest;
+    private final BufferedWriter manifestOut;
+
+    // Último manifesto concluído da mesma origem, para reaproveitar blocos no modo incremental
+    private final Map<String, StoredEntry> previous;
+
+    public ChunkStoreWriter(ChunkStore store, Path source, String backupName, BackupOptions options, Lock storeLock)
+            throws IOException {
+        this.store = store;
+        this.storeLock = storeLock;
+        store.init();
+        this.previous = options.isIncremental() ? loadPrevious(store, source.toString()) : Map.of();
+        this.manifest = store.newManifestPath(backupName);
+        this.manifestOut = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8);
+        manifestOut.write(ChunkStore.SOURCE_HEADER + source);
+        manifestOut.newLine();
+    }
+
+    @Override
+    public void createDirectory(ManifestEntry entry) throws IOException {
+        append(new StoredEntry(true, 0, entry.getLastModified(), List.of(), entry.getRelativePath()));
+    }
+
+    @Override
+    public boolean writeFile(Path file, ManifestEntry entry, TransferMonitor monitor) throws IOException {
+        StoredEntry old = previous.get(entry.getRelativePath());
+        if (old != null && old.getSize() == entry.getSize() && old.getLastModified() == entry.getLastModified()) {
+            append(old);
+            return false;
+        }
+
+        List<String> chunks = new ArrayList<>();
+        byte[] buffer = new byte[(int) Math.min(ChunkStore.CHUNK_SIZE, Math.max(entry.getSize(), 1))];
+        long size = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                chunks.add(store.put(buffer, read));
+                size += read;
+                if (read < buffer.length) break;
+                if (!monitor.onChunk(read)) {
+                    throw new CancellationException("Cópia interrompida");
+                }
+            }
+        }
+
+        append(new StoredEntry(false, size, entry.getLastModified(), chunks, entry.getRelativePath()));
+        return true;
+    }
+
+    @Override
+    public FileSink openFile(Path file, ManifestEntry entry) throws IOException {
+        StoredEntry old = previous.get(entry.getRelativePath());
+        if (old != null && old.getSize() == entry.getSize() && old.getLastModified() == entry.getLastModified()) {
+            append(old);
+            return null;
+        }
+        return new ChunkSink(entry);
+    }
+
+    @Override
+    public long finish(List<ManifestEntry> files, boolean completed) throws IOException {
+        try {
+            manifestOut.close();
+            if (completed) {
+                String name = manifest.getFileName().toString();
+                Path done = manifest.resolveSibling(
+                        name.substring(0, name.length() - ChunkStore.PARTIAL_SUFFIX.length()) + ChunkStore.MANIFEST_SUFFIX);
+                Files.move(manifest, done, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            storeLock.unlock();
+        }
+        return 0;
+    }
+
+    // Junta os blocos recebidos em blocos do store; só entra no manifesto no commit
+    private class ChunkSink implements FileSink {
+
+        private final ManifestEntry entry;
+        private final List<String> chunks = new ArrayList<>();
+        private final byte[] buffer;
+        private int filled;
+        private long size;
+
+        ChunkSink(ManifestEntry entry) {
+            this.entry = entry;
+            this.buffer = new byte[(int) Math.min(ChunkStore.CHUNK_SIZE, Math.max(entry.getSize(), 1))];
+        }
+
+        @Override
+        public void write(byte[] data, int length) throws IOException {
+            int offset = 0;
+            while (offset < length) {
+                int n = Math.min(length - offset, buffer.length - filled);
+                System.arraycopy(data, offset, buffer, filled, n);
+                filled += n;
+                offset += n;
+                if (filled == buffer.length) {
+                    chunks.add(store.put(buffer, filled));
+                    filled = 0;
+                }
+            }
+            size += length;
+        }
+
+        @Override
+        public void commit() throws IOException {
+            if (filled > 0) {
+                chunks.add(store.put(buffer, filled));
+            }
+            append(new StoredEntry(false, size, entry.getLastModified(), chunks, entry.getRelativePath()));
+        }
+
+        @Override
+        public void abort() {
+            // Blocos já gravados sem referência saem na próxima coleta de lixo
+        }
+    }
+
+    private synchronized void append(StoredEntry entry) throws IOException {
+        manifestOut.write(ChunkStore.formatLine(entry));
+        manifestOut.newLine();
+    }
+
+    private static Map<String, StoredEntry> loadPrevious(ChunkStore store, String source) throws IOException {
+        List<Path> manifests = store.listManifests();
+        for (int i = manifests.size() - 1; i >= 0; i--) {
+            if (!source.equals(store.readSource(manifests.get(i)))) {
+                continue;
+            }
+            Map<String, StoredEntry> map = new HashMap<>();
+            for (StoredEntry e : store.readManifest(manifests.get(i))) {
+                if (!e.isDirectory()) {
+                    map.put(e.getRelativePath(), e);
+                }
+            }
+            return map;
+        }
+        return Map.of();
+    }
+}
@@ -0,0 +1,31 @@
+package com.backup_manager.infrastructure.storage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totais de compressão de uma tarefa, atualizados pelos workers.
+ */
+public class CompressionStats {
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder inputBytes = new LongAdder();
+    private final LongAdder outputBytes = new LongAdder();
+
+    public void record(long input, long output) {
+        files.increment();
+        inputBytes.add(input);
+        outputBytes.add(output);
+    }
+
+    public long getFiles() {
+        return files.sum();
+    }
+
+    public long getInputBytes() {
+        return inputBytes.sum();
+    }
+
+    public long getOutputBytes() {
+        return outputBytes.sum();
+    }
+}
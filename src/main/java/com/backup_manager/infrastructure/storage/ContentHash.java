@@ -0,0 +1,79 @@
+package com.backup_manager.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Hash de conteúdo usado para conferir cópias: CRC32C, rápido (acelerado pelo processador),
+ * não criptográfico. Arquivos são lidos por leitura posicional num buffer direto reaproveitado
+ * por thread; mapeamento de memória ficou de fora porque a janela só é liberada pelo coletor,
+ * e até lá o Windows não deixa renomear nem apagar o arquivo.
+ */
+public final class ContentHash {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int DIRECT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+    private static final ThreadLocal<ByteBuffer> DIRECT_BUFFERS =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE));
+
+    private ContentHash() {
+    }
+
+    public static String of(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            update(crc, channel, 0, channel.size());
+        }
+        return format(crc);
+    }
+
+    public static String of(InputStream in) throws IOException {
+        CRC32C crc = new CRC32C();
+        update(crc, in);
+        return format(crc);
+    }
+
+    // Trecho [position, position + length) do canal; a posição do canal não muda
+    public static void update(CRC32C crc, FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer buffer = DIRECT_BUFFERS.get();
+        long offset = position;
+        long end = position + length;
+        while (offset < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - offset));
+            int n = channel.read(buffer, offset);
+            if (n < 0) {
+                break;
+            }
+            crc.update(buffer.flip());
+            offset += n;
+        }
+    }
+
+    public static void update(CRC32C crc, InputStream in) throws IOException {
+        update(crc, in, Long.MAX_VALUE);
+    }
+
+    public static String format(CRC32C crc) {
+        return String.format("%08x", crc.getValue());
+    }
+
+    private static void update(CRC32C crc, InputStream in, long limit) throws IOException {
+        byte[] buffer = BUFFERS.get();
+        long remaining = limit;
+        while (remaining > 0) {
+            int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (n < 0) {
+                break;
+            }
+            crc.update(buffer, 0, n);
+            remaining -= n;
+        }
+    }
+}
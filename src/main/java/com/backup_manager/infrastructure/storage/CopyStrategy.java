@@ -0,0 +1,10 @@
+package com.backup_manager.infrastructure.storage;
+
+public enum CopyStrategy {
+    // TRANSFER no mesmo volume, BUFFER entre volumes diferentes
+    AUTO,
+    // FileChannel.transferTo, sem passar os dados pelo heap
+    TRANSFER,
+    // Blocos grandes em ByteBuffer direto
+    BUFFER
+}
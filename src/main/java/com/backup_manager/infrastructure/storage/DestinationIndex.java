@@ -0,0 +1,117 @@
+package com.backup_manager.infrastructure.storage;
+
+import com.backup_manager.domain.model.ManifestEntry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice persistido no destino com o que já foi copiado
+ * (caminho relativo, tamanho, data de modificação e hash opcional).
+ * Usado pelo modo incremental para pular arquivos inalterados.
+ *
+ * Formato: uma linha por arquivo, "tamanho\tmtime\thash\tcaminho".
+ */
+public class DestinationIndex {
+
+    public static final String FILE_NAME = ".backup-index";
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private DestinationIndex(Path file) {
+        this.file = file;
+    }
+
+    public static DestinationIndex load(Path destination) throws IOException {
+        DestinationIndex index = new DestinationIndex(destination.resolve(FILE_NAME));
+        if (!Files.exists(index.file)) {
+            return index;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(index.file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 4);
+                if (parts.length < 4) continue;
+                index.entries.put(parts[3], new Entry(
+                        Long.parseLong(parts[0]),
+                        Long.parseLong(parts[1]),
+                        parts[2].isEmpty() ? null : parts[2]
+                ));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Índice de destino corrompido: " + index.file, e);
+        }
+        return index;
+    }
+
+    public static DestinationIndex empty(Path destination) {
+        return new DestinationIndex(destination.resolve(FILE_NAME));
+    }
+
+    public boolean isUnchanged(ManifestEntry entry) {
+        Entry indexed = entries.get(entry.getRelativePath());
+        return indexed != null
+                && indexed.getSize() == entry.getSize()
+                && indexed.getLastModified() == entry.getLastModified();
+    }
+
+    public Entry get(String relativePath) {
+        return entries.get(relativePath);
+    }
+
+    public void record(ManifestEntry entry, String hash) {
+        entries.put(entry.getRelativePath(), new Entry(entry.getSize(), entry.getLastModified(), hash));
+    }
+
+    public void remove(String relativePath) {
+        entries.remove(relativePath);
+    }
+
+    public Set<String> paths() {
+        return entries.keySet();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Grava em arquivo temporário e troca, para não deixar índice pela metade
+    public void save() throws IOException {
+        Path tmp = file.resolveSibling(FILE_NAME + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry v = e.getValue();
+                writer.write(Long.toString(v.getSize()));
+                writer.write('\t');
+                writer.write(Long.toString(v.getLastModified()));
+                writer.write('\t');
+                writer.write(v.getHash() == null ? "" : v.getHash());
+                writer.write('\t');
+                writer.write(e.getKey());
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+
+        private long size;
+        private long lastModified;
+        private String hash;
+    }
+}
@@ -0,0 +1,41 @@
+package com.backup_manager.infrastructure.storage;
+
+import com.backup_manager.domain.model.ManifestEntry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Forma como uma tarefa grava seus itens no destino.
+ * Implementações precisam aceitar {@link #writeFile} de vários workers ao mesmo tempo.
+ */
+public interface DestinationWriter {
+
+    void createDirectory(ManifestEntry entry) throws IOException;
+
+    /**
+     * Grava o arquivo no destino. Transferências longas chamam o monitor entre os blocos
+     * e lançam {@link java.util.concurrent.CancellationException} quando ele pede para parar.
+     *
+     * @return false quando o arquivo estava inalterado e foi ignorado (modo incremental)
+     */
+    boolean writeFile(Path file, ManifestEntry entry, TransferMonitor monitor) throws IOException;
+
+    /**
+     * Abre a gravação de um arquivo cujo conteúdo será entregue em blocos (fan-out).
+     *
+     * @param file arquivo de origem, de onde o commit copia os atributos
+     * @return nulo quando o arquivo estava inalterado e foi ignorado
+     */
+    FileSink openFile(Path file, ManifestEntry entry) throws IOException;
+
+    /**
+     * Conclui a gravação. Sempre chamado, mesmo após cancelamento ou falha.
+     *
+     * @param files     arquivos do manifesto de origem
+     * @param completed true se todos os arquivos foram processados
+     * @return quantidade de arquivos removidos do destino
+     */
+    long finish(List<ManifestEntry> files, boolean completed) throws IOException;
+}
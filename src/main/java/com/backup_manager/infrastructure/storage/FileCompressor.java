@@ -0,0 +1,140 @@
+package com.backup_manager.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CancellationException;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressão por arquivo para o destino comum: "nome" vira "nome.gz" (GZIP no nível mais rápido).
+ * Antes de comprimir, o primeiro bloco do arquivo é comprimido como amostra; formatos que
+ * já vêm comprimidos (zip, jpg, mp4...) não encolhem e são copiados como estão.
+ *
+ * <p>O resultado é um GZIP comum por arquivo, com os atributos da origem, e não há restauração
+ * pela API: para recuperar "nome", descomprima "nome.gz" (gunzip ou {@link java.util.zip.GZIPInputStream}).
+ * O índice do destino ({@link DestinationIndex}) lista os caminhos originais, sem ".gz", e distingue
+ * o que foi comprimido de arquivos que já tinham essa extensão na origem.
+ */
+public class FileCompressor {
+
+    public static final String SUFFIX = ".gz";
+
+    private static final int SAMPLE_SIZE = 64 * 1024;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    // Arquivos menores não compensam o cabeçalho do gzip
+    private static final long MIN_SIZE = 4 * 1024;
+
+    // A amostra precisa encolher pelo menos 10%
+    private static final double MAX_SAMPLE_RATIO = 0.9;
+
+    private final CompressionStats stats;
+
+    public FileCompressor(CompressionStats stats) {
+        this.stats = stats;
+    }
+
+    public static Path compressedPath(Path target) {
+        return target.resolveSibling(target.getFileName() + SUFFIX);
+    }
+
+    public boolean isWorthCompressing(Path file, long size) throws IOException {
+        if (size < MIN_SIZE) {
+            return false;
+        }
+
+        byte[] sample = new byte[(int) Math.min(SAMPLE_SIZE, size)];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(sample, 0, sample.length);
+        }
+        return isWorthCompressing(sample, read, size);
+    }
+
+    /**
+     * Mesma decisão, com o primeiro bloco já lido (fan-out).
+     */
+    public boolean isWorthCompressing(byte[] firstBlock, int length, long size) {
+        if (size < MIN_SIZE) {
+            return false;
+        }
+
+        int read = Math.min(length, SAMPLE_SIZE);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(firstBlock, 0, read);
+            deflater.finish();
+            byte[] out = new byte[read + 64];
+            int compressed = 0;
+            while (!deflater.finished() && compressed < out.length) {
+                compressed += deflater.deflate(out, compressed, out.length - compressed);
+            }
+            return deflater.finished() && compressed < read * MAX_SAMPLE_RATIO;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Grava "target.gz" em fluxo, sem carregar o arquivo inteiro, chamando o monitor a cada bloco lido.
+     */
+    public void compress(Path file, Path target, TransferMonitor monitor) throws IOException {
+        compress(file, target, monitor, null);
+    }
+
+    // digest, quando informado, recebe os bytes originais (não comprimidos)
+    public void compress(Path file, Path target, TransferMonitor monitor, CRC32C digest) throws IOException {
+        Path compressed = compressedPath(target);
+        Path part = compressed.resolveSibling(compressed.getFileName() + LargeFileCopier.PART_SUFFIX);
+        long input = 0;
+        boolean done = false;
+        try {
+            try (InputStream in = Files.newInputStream(file);
+                 OutputStream out = openStream(part)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, n);
+                    if (digest != null) {
+                        digest.update(buffer, 0, n);
+                    }
+                    input += n;
+                    if (!monitor.onChunk(n)) {
+                        throw new CancellationException("Cópia interrompida");
+                    }
+                }
+            }
+            done = true;
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(part);
+            }
+        }
+
+        stats.record(input, Files.size(part));
+        LargeFileCopier.copyAttributes(file, part);
+        Files.move(part, compressed, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public OutputStream openStream(Path part) throws IOException {
+        return new FastGzipOutputStream(Files.newOutputStream(part));
+    }
+
+    public void record(long inputBytes, long outputBytes) {
+        stats.record(inputBytes, outputBytes);
+    }
+
+    private static class FastGzipOutputStream extends GZIPOutputStream {
+
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.backup_manager.infrastructure.storage;
+
+import java.io.IOException;
+
+/**
+ * Gravação de um arquivo cujo conteúdo chega em blocos lidos por outra parte
+ * (fan-out: a origem é lida uma vez e cada bloco vai para vários destinos).
+ * Nada aparece no destino antes de {@link #commit()}.
+ */
+public interface FileSink {
+
+    void write(byte[] data, int length) throws IOException;
+
+    void commit() throws IOException;
+
+    // Descarta o que foi gravado; não lança exceção
+    void abort();
+}
@@ -0,0 +1,185 @@
+package com.backup_manager.infrastructure.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.concurrent.CancellationException;
+import java.util.zip.CRC32C;
+
+/**
+ * Cópia de arquivos grandes em blocos, com {@link TransferMonitor} entre eles.
+ * O arquivo é gravado em "nome.part" e só substitui o destino quando completo.
+ * A cada {@code checkpointBytes} os dados são forçados para o disco e o monitor
+ * recebe o offset confirmado, a partir do qual uma cópia interrompida pode continuar.
+ */
+public class LargeFileCopier {
+
+    public static final String PART_SUFFIX = ".part";
+
+    private final CopyStrategy strategy;
+    private final int chunkSize;
+    private final long checkpointBytes;
+
+    /**
+     * @param strategy        TRANSFER ou BUFFER (AUTO deve ser resolvido antes)
+     * @param chunkSize       bytes entre duas chamadas do monitor
+     * @param checkpointBytes bytes entre dois pontos de retomada
+     */
+    public LargeFileCopier(CopyStrategy strategy, int chunkSize, long checkpointBytes) {
+        this.strategy = strategy;
+        this.chunkSize = chunkSize;
+        this.checkpointBytes = checkpointBytes;
+    }
+
+    public CopyStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void copy(Path file, Path target, TransferMonitor monitor) throws IOException {
+        copy(file, target, monitor, null);
+    }
+
+    /**
+     * @param digest quando informado, recebe todos os bytes copiados (a estratégia TRANSFER vira BUFFER,
+     *               já que transferTo não passa os bytes pela JVM); numa retomada, o trecho já gravado
+     *               é lido do próprio .part
+     */
+    public void copy(Path file, Path target, TransferMonitor monitor, CRC32C digest) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+        long start = resumablePosition(part, monitor.resumeOffset());
+        boolean done = false;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE)) {
+
+            // Descarta o que foi gravado depois do último ponto confirmado
+            out.truncate(start);
+            if (digest != null && start > 0) {
+                ContentHash.update(digest, out, 0, start);
+            }
+            out.position(start);
+            if (start > 0 && !monitor.onChunk(start)) {
+                throw new CancellationException("Cópia interrompida");
+            }
+
+            Checkpoints checkpoints = new Checkpoints(out, monitor);
+            if (strategy == CopyStrategy.TRANSFER && digest == null) {
+                transfer(in, out, start, checkpoints);
+            } else {
+                buffered(in, out, start, checkpoints, digest);
+            }
+            done = true;
+        } finally {
+            // Cancelamento ou erro encerram a tarefa; só uma queda da JVM deixa o .part para retomada
+            if (!done) {
+                Files.deleteIfExists(part);
+            }
+        }
+
+        copyAttributes(file, part);
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Mesmos atributos de {@code Files.copy(COPY_ATTRIBUTES)}: datas e, em sistemas POSIX,
+     * permissões, dono e grupo. Dono e grupo só mudam quando o processo tem permissão para isso.
+     */
+    public static void copyAttributes(Path file, Path target) throws IOException {
+        PosixFileAttributeView posix = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (posix != null) {
+            PosixFileAttributes attributes = Files.readAttributes(file, PosixFileAttributes.class);
+            try {
+                posix.setOwner(attributes.owner());
+                posix.setGroup(attributes.group());
+            } catch (IOException e) {
+                // Sem privilégio para trocar o dono: mantém o do processo, como o Files.copy
+            }
+            posix.setPermissions(attributes.permissions());
+        }
+        BasicFileAttributes basic = Files.readAttributes(file, BasicFileAttributes.class);
+        Files.getFileAttributeView(target, BasicFileAttributeView.class)
+                .setTimes(basic.lastModifiedTime(), basic.lastAccessTime(), basic.creationTime());
+    }
+
+    // Origem que encolheu durante a leitura: o arquivo incompleto não pode virar o destino
+    public static void checkComplete(long copied, long expected) throws IOException {
+        if (copied < expected) {
+            throw new IOException("Origem terminou antes do esperado: " + copied + " de " + expected + " bytes");
+        }
+    }
+
+    private static long resumablePosition(Path part, long offset) throws IOException {
+        if (offset <= 0 || !Files.exists(part)) {
+            return 0;
+        }
+        return Math.min(offset, Files.size(part));
+    }
+
+    private void transfer(FileChannel in, FileChannel out, long start, Checkpoints checkpoints) throws IOException {
+        long size = in.size();
+        long position = start;
+        while (position < size) {
+            long n = in.transferTo(position, Math.min(chunkSize, size - position), out);
+            if (n <= 0) {
+                checkComplete(position, size);
+            }
+            position += n;
+            checkpoints.advance(n, position);
+        }
+    }
+
+    private void buffered(FileChannel in, FileChannel out, long start, Checkpoints checkpoints, CRC32C digest)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(chunkSize);
+        long size = in.size();
+        in.position(start);
+        long position = start;
+        while (in.read(buffer) > 0) {
+            buffer.flip();
+            int n = buffer.remaining();
+            if (digest != null) {
+                digest.update(buffer);
+                buffer.flip();
+            }
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+            position += n;
+            checkpoints.advance(n, position);
+        }
+        checkComplete(position, size);
+    }
+
+    private class Checkpoints {
+
+        private final FileChannel out;
+        private final TransferMonitor monitor;
+        private long sinceCheckpoint;
+
+        Checkpoints(FileChannel out, TransferMonitor monitor) {
+            this.out = out;
+            this.monitor = monitor;
+        }
+
+        void advance(long bytes, long position) throws IOException {
+            sinceCheckpoint += bytes;
+            if (checkpointBytes > 0 && sinceCheckpoint >= checkpointBytes) {
+                out.force(false);
+                monitor.onCheckpoint(position);
+                sinceCheckpoint = 0;
+            }
+            if (!monitor.onChunk(bytes)) {
+                throw new CancellationException("Cópia interrompida");
+            }
+        }
+    }
+}
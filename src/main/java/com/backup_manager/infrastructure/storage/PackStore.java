@@ -0,0 +1,345 @@
+package com.backup_manager.infrastructure.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Destino em pacotes: arquivos pequenos são concatenados em poucos arquivos grandes,
+ * gravados em sequência, e os demais ficam como arquivos comuns, numa pasta própria de cada backup.
+ * Nada do que um backup grava é alterado depois: um índice antigo continua restaurando o
+ * conteúdo da época, e o espaço só volta com a coleta de lixo (ver PackStoreService).
+ *
+ * <pre>
+ * destino/.packs/nome-00000.pack            conteúdo dos arquivos pequenos, um após o outro
+ * destino/.packs/nome.index                 um índice por backup com a posição de cada item
+ * destino/.packs/files/nome/caminho/arquivo arquivos acima do limite gravados pelo backup "nome"
+ * </pre>
+ *
+ * O índice começa com "# source=origem" e segue com uma linha por item:
+ * "tipo\ttamanho\tmtime\tpacote\tposição\thash\tatributos\tcaminho", tipo D (diretório),
+ * P (no pacote) ou F (arquivo comum). Em F, "pacote" é o backup que gravou o arquivo; em D fica "-".
+ * O hash ({@link ContentHash}) fica vazio quando não foi calculado; os atributos são
+ * "dono:grupo:permissões" em sistemas POSIX e ficam vazios nos demais.
+ * Índices de backups interrompidos ficam com a extensão .partial.
+ */
+public class PackStore {
+
+    public static final String PACK_DIR = ".packs";
+    public static final String PACK_SUFFIX = ".pack";
+    public static final String INDEX_SUFFIX = ".index";
+    public static final String PARTIAL_SUFFIX = ".partial";
+    public static final String SOURCE_HEADER = "# source=";
+    public static final String FILES_DIR = "files";
+    public static final String NO_PACK = "-";
+
+    private final Path destination;
+    private final Path root;
+
+    public PackStore(Path destination) {
+        this.destination = destination;
+        this.root = destination.resolve(PACK_DIR);
+    }
+
+    public Path getDestination() {
+        return destination;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public void init() throws IOException {
+        Files.createDirectories(root);
+    }
+
+    public boolean exists() {
+        return Files.isDirectory(root);
+    }
+
+    public Path packPath(String packName) {
+        return root.resolve(packName + PACK_SUFFIX);
+    }
+
+    public Path newIndexPath(String name) {
+        return root.resolve(name + PARTIAL_SUFFIX);
+    }
+
+    public Path filesDir() {
+        return root.resolve(FILES_DIR);
+    }
+
+    // Pasta dos arquivos grandes gravados pelo backup "name"
+    public Path fileDir(String name) {
+        return filesDir().resolve(name);
+    }
+
+    // Onde está o conteúdo de um item F
+    public Path filePath(PackedEntry entry) {
+        return fileDir(entry.getPack()).resolve(entry.getRelativePath());
+    }
+
+    // Pacotes já gravados por um backup (retomado) com este nome
+    public int countPacks(String name) throws IOException {
+        try (Stream<Path> files = Files.list(root)) {
+            return (int) files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(name + "-") && n.endsWith(PACK_SUFFIX))
+                    .count();
+        }
+    }
+
+    /**
+     * O conteúdo do item ainda está inteiro no destino: o pacote alcança a posição final
+     * ou o arquivo comum tem o tamanho registrado. Itens de um índice parcial podem apontar
+     * para dados que não chegaram ao disco.
+     */
+    public boolean isIntact(PackedEntry entry) throws IOException {
+        Path data = switch (entry.getKind()) {
+            case PACKED -> packPath(entry.getPack());
+            case FILE -> filePath(entry);
+            case DIRECTORY -> null;
+        };
+        if (data == null) {
+            return true;
+        }
+        if (!Files.isRegularFile(data)) {
+            return false;
+        }
+        long size = Files.size(data);
+        return entry.getKind() == Kind.PACKED ? entry.getOffset() + entry.getSize() <= size : entry.getSize() == size;
+    }
+
+    // Índices concluídos, do mais antigo para o mais recente
+    public List<Path> listIndexes() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(root)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(INDEX_SUFFIX))
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    // Índices de backups interrompidos ou em andamento
+    public List<Path> listPartialIndexes() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(root)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(PARTIAL_SUFFIX)).toList();
+        }
+    }
+
+    public List<PackedEntry> readIndex(Path index) throws IOException {
+        List<PackedEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) continue;
+                String[] parts = line.split("\t", 8);
+                if (parts.length < 8) continue;
+                entries.add(new PackedEntry(
+                        Kind.of(parts[0]),
+                        Long.parseLong(parts[1]),
+                        Long.parseLong(parts[2]),
+                        parts[3],
+                        Long.parseLong(parts[4]),
+                        parts[5].isEmpty() ? null : parts[5],
+                        parts[6].isEmpty() ? null : parts[6],
+                        parts[7]
+                ));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Índice corrompido: " + index, e);
+        }
+        return entries;
+    }
+
+    public String readSource(Path index) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            String first = reader.readLine();
+            return first != null && first.startsWith(SOURCE_HEADER)
+                    ? first.substring(SOURCE_HEADER.length())
+                    : null;
+        }
+    }
+
+    public static String formatLine(PackedEntry entry) {
+        return entry.getKind().code + '\t'
+                + entry.getSize() + '\t'
+                + entry.getLastModified() + '\t'
+                + entry.getPack() + '\t'
+                + entry.getOffset() + '\t'
+                + (entry.getHash() == null ? "" : entry.getHash()) + '\t'
+                + (entry.getAttributes() == null ? "" : entry.getAttributes()) + '\t'
+                + entry.getRelativePath();
+    }
+
+    // "dono:grupo:permissões"; nulo quando o sistema de arquivos não é POSIX
+    public static String readAttributes(Path file) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+        if (view == null) {
+            return null;
+        }
+        PosixFileAttributes attributes = view.readAttributes();
+        return attributes.owner().getName() + ':' + attributes.group().getName() + ':'
+                + PosixFilePermissions.toString(attributes.permissions());
+    }
+
+    /**
+     * Aplica os atributos gravados no índice. Dono e grupo só mudam quando existem no sistema e o
+     * processo tem permissão para isso, como no {@link LargeFileCopier#copyAttributes}.
+     */
+    public static void applyAttributes(Path target, String attributes) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (attributes == null || view == null) {
+            return;
+        }
+        String[] parts = attributes.split(":");
+        if (parts.length != 3) {
+            throw new IOException("Atributos inválidos no índice: " + attributes);
+        }
+        UserPrincipalLookupService lookup = target.getFileSystem().getUserPrincipalLookupService();
+        try {
+            view.setOwner(lookup.lookupPrincipalByName(parts[0]));
+            view.setGroup(lookup.lookupPrincipalByGroupName(parts[1]));
+        } catch (IOException e) {
+            // Sem privilégio ou usuário inexistente: mantém o do processo
+        }
+        try {
+            view.setPermissions(PosixFilePermissions.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Atributos inválidos no índice: " + attributes, e);
+        }
+    }
+
+    /**
+     * Reconstrói a árvore original de um índice em um diretório comum.
+     * Os itens dos pacotes são extraídos na ordem em que foram gravados, para ler cada pacote em sequência.
+     *
+     * @return quantidade de arquivos restaurados
+     */
+    public long restore(Path index, Path target) throws IOException {
+        List<PackedEntry> entries = readIndex(index);
+        List<PackedEntry> files = new ArrayList<>();
+        List<PackedEntry> dirs = new ArrayList<>();
+        for (PackedEntry entry : entries) {
+            if (entry.getKind() == Kind.DIRECTORY) {
+                Files.createDirectories(target.resolve(entry.getRelativePath()));
+                dirs.add(entry);
+            } else {
+                files.add(entry);
+            }
+        }
+        files.sort(Comparator.comparing(PackedEntry::getPack).thenComparingLong(PackedEntry::getOffset));
+
+        Map<String, FileChannel> packs = new HashMap<>();
+        try {
+            for (PackedEntry entry : files) {
+                Path out = target.resolve(entry.getRelativePath());
+                Files.createDirectories(out.getParent());
+                if (entry.getKind() == Kind.PACKED) {
+                    FileChannel pack = packs.get(entry.getPack());
+                    if (pack == null) {
+                        pack = FileChannel.open(packPath(entry.getPack()), StandardOpenOption.READ);
+                        packs.put(entry.getPack(), pack);
+                    }
+                    extract(pack, entry, out);
+                } else {
+                    Files.copy(filePath(entry), out, StandardCopyOption.REPLACE_EXISTING);
+                }
+                applyAttributes(out, entry.getAttributes());
+                Files.setLastModifiedTime(out, FileTime.fromMillis(entry.getLastModified()));
+            }
+        } finally {
+            for (FileChannel pack : packs.values()) {
+                pack.close();
+            }
+        }
+
+        // Diretórios por último, dos mais internos para fora: permissões restritas não barram os filhos
+        dirs.sort(Comparator.comparing(PackedEntry::getRelativePath).reversed());
+        for (PackedEntry dir : dirs) {
+            Path out = target.resolve(dir.getRelativePath());
+            applyAttributes(out, dir.getAttributes());
+            Files.setLastModifiedTime(out, FileTime.fromMillis(dir.getLastModified()));
+        }
+        return files.size();
+    }
+
+    private static void extract(FileChannel pack, PackedEntry entry, Path out) throws IOException {
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = entry.getOffset();
+            long remaining = entry.getSize();
+            while (remaining > 0) {
+                long n = pack.transferTo(position, remaining, channel);
+                if (n <= 0) {
+                    throw new IOException("Pacote truncado: " + entry.getPack());
+                }
+                position += n;
+                remaining -= n;
+            }
+        }
+    }
+
+    public enum Kind {
+        DIRECTORY("D"),
+        PACKED("P"),
+        FILE("F");
+
+        private final String code;
+
+        Kind(String code) {
+            this.code = code;
+        }
+
+        static Kind of(String code) {
+            for (Kind kind : values()) {
+                if (kind.code.equals(code)) return kind;
+            }
+            throw new IllegalArgumentException("Tipo desconhecido: " + code);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class PackedEntry {
+
+        private Kind kind;
+        private long size;
+        private long lastModified;
+
+        // Nome do pacote (P) ou do backup que gravou o arquivo (F); "-" em diretórios
+        private String pack;
+        private long offset;
+        private String hash;
+        private String attributes;
+        private String relativePath;
+
+        // Item reaproveitado de outro índice com os atributos atuais da origem
+        public PackedEntry withAttributes(String attributes) {
+            return new PackedEntry(kind, size, lastModified, pack, offset, hash, attributes, relativePath);
+        }
+    }
+}
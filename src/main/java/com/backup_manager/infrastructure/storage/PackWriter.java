@@ -0,0 +1,321 @@
+package com.backup_manager.infrastructure.storage;
+
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.ManifestEntry;
+import com.backup_manager.infrastructure.storage.PackStore.Kind;
+import com.backup_manager.infrastructure.storage.PackStore.PackedEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.zip.CRC32C;
+
+/**
+ * Grava o backup no {@link PackStore} do destino. Arquivos de até {@code smallFileLimit} bytes
+ * são lidos inteiros e anexados ao pacote corrente, em sequência, sem criar arquivo nem diretório
+ * no destino; os maiores seguem pelo {@link LargeFileCopier} para a pasta deste backup em
+ * {@code .packs/files}, sem tocar no que backups anteriores gravaram.
+ * Um novo pacote é aberto quando o corrente passa de {@code packSizeLimit} bytes.
+ * Com a opção checksum, o hash de cada arquivo vai para o índice junto com a posição; dono, grupo
+ * e permissões de cada item sempre vão, para a restauração devolvê-los.
+ * Numa retomada, os itens do índice parcial que o diário dá como concluídos são reaproveitados.
+ */
+public class PackWriter implements DestinationWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PackWriter.class);
+    private static final int PACK_BUFFER = 1024 * 1024;
+
+    private final PackStore store;
+    private final Path source;
+    private final String name;
+    private final BackupOptions options;
+    private final long smallFileLimit;
+    private final long packSizeLimit;
+    private final LargeFileCopier largeFileCopier;
+    private final Lock storeLock;
+    private final Path index;
+    private final BufferedWriter indexOut;
+
+    // Último índice concluído da mesma origem, para reaproveitar itens no modo incremental
+    private final Map<String, PackedEntry> previous;
+
+    // Itens já gravados por esta mesma tarefa antes de uma queda (diário + índice parcial)
+    private final Map<String, PackedEntry> resumed;
+
+    private final Object packLock = new Object();
+    private OutputStream packOut;
+    private String packName;
+    private long packOffset;
+    private int packCount;
+
+    /**
+     * @param resumed   itens do índice parcial desta tarefa dados como concluídos pelo diário; vazio numa execução nova
+     * @param storeLock trava de leitura do store, liberada em {@link #finish}
+     */
+    public PackWriter(PackStore store, Path source, String name, BackupOptions options,
+                      long smallFileLimit, long packSizeLimit, LargeFileCopier largeFileCopier,
+                      Map<String, PackedEntry> resumed, Lock storeLock) throws IOException {
+        this.store = store;
+        this.source = source;
+        this.name = name;
+        this.options = options;
+        this.smallFileLimit = smallFileLimit;
+        this.packSizeLimit = packSizeLimit;
+        this.largeFileCopier = largeFileCopier;
+        this.resumed = resumed;
+        this.storeLock = storeLock;
+        store.init();
+        this.previous = options.isIncremental() ? loadPrevious(store, source.toString()) : Map.of();
+        // Pacotes de antes da queda continuam referenciados pelos itens retomados
+        this.packCount = store.countPacks(name);
+        this.index = store.newIndexPath(name);
+        this.indexOut = Files.newBufferedWriter(index, StandardCharsets.UTF_8);
+        indexOut.write(PackStore.SOURCE_HEADER + source);
+        indexOut.newLine();
+    }
+
+    // Diretórios só entram no índice; no destino são criados quando um arquivo comum precisa deles
+    @Override
+    public void createDirectory(ManifestEntry entry) throws IOException {
+        append(new PackedEntry(Kind.DIRECTORY, 0, entry.getLastModified(), PackStore.NO_PACK, 0, null,
+                attributesOf(entry), entry.getRelativePath()));
+    }
+
+    @Override
+    public boolean writeFile(Path file, ManifestEntry entry, TransferMonitor monitor) throws IOException {
+        if (reuseUnchanged(entry)) {
+            return false;
+        }
+        if (entry.getSize() <= smallFileLimit) {
+            byte[] data = Files.readAllBytes(file);
+            appendPacked(entry, data, data.length);
+            return true;
+        }
+
+        Path target = store.fileDir(name).resolve(entry.getRelativePath());
+        Files.createDirectories(target.getParent());
+        CRC32C digest = options.isChecksum() ? new CRC32C() : null;
+        largeFileCopier.copy(file, target, monitor, digest);
+        append(new PackedEntry(Kind.FILE, entry.getSize(), entry.getLastModified(), name, 0, hashOf(digest),
+                attributesOf(entry), entry.getRelativePath()));
+        return true;
+    }
+
+    @Override
+    public FileSink openFile(Path file, ManifestEntry entry) throws IOException {
+        if (reuseUnchanged(entry)) {
+            return null;
+        }
+        return entry.getSize() <= smallFileLimit ? new PackedSink(entry) : new RegularSink(file, entry);
+    }
+
+    @Override
+    public long finish(List<ManifestEntry> files, boolean completed) throws IOException {
+        try {
+            synchronized (packLock) {
+                if (packOut != null) {
+                    packOut.close();
+                }
+            }
+            synchronized (this) {
+                indexOut.close();
+            }
+            if (!completed) {
+                return 0;
+            }
+
+            String fileName = index.getFileName().toString();
+            Files.move(index, index.resolveSibling(
+                    fileName.substring(0, fileName.length() - PackStore.PARTIAL_SUFFIX.length()) + PackStore.INDEX_SUFFIX),
+                    StandardCopyOption.ATOMIC_MOVE);
+            return options.isIncremental() && options.isDeleteRemoved() ? countRemoved(files) : 0;
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    /**
+     * Mesmo tamanho e mtime de um item já gravado (nesta tarefa antes de uma queda ou no último
+     * backup): o índice novo aponta para ele, desde que o conteúdo ainda esteja inteiro no destino.
+     */
+    private boolean reuseUnchanged(ManifestEntry entry) throws IOException {
+        PackedEntry old = resumed.get(entry.getRelativePath());
+        if (old == null) {
+            old = previous.get(entry.getRelativePath());
+        }
+        if (old == null || old.getSize() != entry.getSize() || old.getLastModified() != entry.getLastModified()
+                || !store.isIntact(old)) {
+            return false;
+        }
+        // Permissões mudam sem mexer no mtime: o item novo leva os atributos atuais
+        append(old.withAttributes(attributesOf(entry)));
+        return true;
+    }
+
+    private void appendPacked(ManifestEntry entry, byte[] data, int length) throws IOException {
+        String hash = null;
+        if (options.isChecksum()) {
+            CRC32C digest = new CRC32C();
+            digest.update(data, 0, length);
+            hash = ContentHash.format(digest);
+        }
+        String attributes = attributesOf(entry);
+        PackedEntry packed;
+        synchronized (packLock) {
+            if (packOut == null || (packOffset > 0 && packOffset + length > packSizeLimit)) {
+                rollPack();
+            }
+            packOut.write(data, 0, length);
+            packed = new PackedEntry(Kind.PACKED, length, entry.getLastModified(), packName, packOffset, hash,
+                    attributes, entry.getRelativePath());
+            packOffset += length;
+        }
+        append(packed);
+    }
+
+    private void rollPack() throws IOException {
+        if (packOut != null) {
+            packOut.close();
+        }
+        packName = String.format("%s-%05d", name, packCount++);
+        packOut = new BufferedOutputStream(Files.newOutputStream(store.packPath(packName)), PACK_BUFFER);
+        packOffset = 0;
+    }
+
+    private String attributesOf(ManifestEntry entry) throws IOException {
+        return PackStore.readAttributes(source.resolve(entry.getRelativePath()));
+    }
+
+    private static String hashOf(CRC32C digest) {
+        return digest != null ? ContentHash.format(digest) : null;
+    }
+
+    private synchronized void append(PackedEntry entry) throws IOException {
+        indexOut.write(PackStore.formatLine(entry));
+        indexOut.newLine();
+    }
+
+    /**
+     * Itens do último backup que saíram da origem. Nada é apagado aqui: índices anteriores ainda
+     * podem referenciá-los; o índice novo só deixa de listá-los e a coleta de lixo libera o espaço
+     * quando nenhum índice mantido pela retenção precisar deles.
+     */
+    private long countRemoved(List<ManifestEntry> files) {
+        Set<String> current = new HashSet<>();
+        for (ManifestEntry entry : files) {
+            current.add(entry.getRelativePath());
+        }
+        return previous.keySet().stream().filter(path -> !current.contains(path)).count();
+    }
+
+    private static Map<String, PackedEntry> loadPrevious(PackStore store, String source) throws IOException {
+        List<Path> indexes = store.listIndexes();
+        for (int i = indexes.size() - 1; i >= 0; i--) {
+            if (!source.equals(store.readSource(indexes.get(i)))) {
+                continue;
+            }
+            Map<String, PackedEntry> map = new HashMap<>();
+            for (PackedEntry e : store.readIndex(indexes.get(i))) {
+                if (e.getKind() != Kind.DIRECTORY) {
+                    map.put(e.getRelativePath(), e);
+                }
+            }
+            return map;
+        }
+        return Map.of();
+    }
+
+    // Arquivo pequeno: junta os blocos em memória e anexa ao pacote no commit
+    private class PackedSink implements FileSink {
+
+        private final ManifestEntry entry;
+        private final ByteArrayOutputStream buffer;
+
+        PackedSink(ManifestEntry entry) {
+            this.entry = entry;
+            this.buffer = new ByteArrayOutputStream((int) Math.max(entry.getSize(), 32));
+        }
+
+        @Override
+        public void write(byte[] data, int length) {
+            buffer.write(data, 0, length);
+        }
+
+        @Override
+        public void commit() throws IOException {
+            appendPacked(entry, buffer.toByteArray(), buffer.size());
+        }
+
+        @Override
+        public void abort() {
+            // Nada foi gravado no destino
+        }
+    }
+
+    private class RegularSink implements FileSink {
+
+        private final Path file;
+        private final ManifestEntry entry;
+        private final Path target;
+        private final Path part;
+        private final CRC32C digest = options.isChecksum() ? new CRC32C() : null;
+        private OutputStream out;
+
+        RegularSink(Path file, ManifestEntry entry) {
+            this.file = file;
+            this.entry = entry;
+            this.target = store.fileDir(name).resolve(entry.getRelativePath());
+            this.part = target.resolveSibling(target.getFileName() + LargeFileCopier.PART_SUFFIX);
+        }
+
+        @Override
+        public void write(byte[] data, int length) throws IOException {
+            if (out == null) {
+                Files.createDirectories(target.getParent());
+                out = new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024);
+            }
+            out.write(data, 0, length);
+            if (digest != null) {
+                digest.update(data, 0, length);
+            }
+        }
+
+        @Override
+        public void commit() throws IOException {
+            if (out == null) {
+                write(new byte[0], 0);
+            }
+            out.close();
+            LargeFileCopier.copyAttributes(file, part);
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            append(new PackedEntry(Kind.FILE, entry.getSize(), entry.getLastModified(), name, 0, hashOf(digest),
+                    attributesOf(entry), entry.getRelativePath()));
+        }
+
+        @Override
+        public void abort() {
+            try {
+                if (out != null) {
+                    out.close();
+                }
+                Files.deleteIfExists(part);
+            } catch (IOException e) {
+                logger.debug("Erro ao descartar {}: {}", part, e.getMessage());
+            }
+        }
+    }
+}
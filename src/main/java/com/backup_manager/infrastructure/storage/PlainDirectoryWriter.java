@@ -0,0 +1,266 @@
+package com.backup_manager.infrastructure.storage;
+
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.ManifestEntry;
+import com.backup_manager.domain.model.WarningCode;
+import com.backup_manager.infrastructure.logging.WarningSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Grava o backup como uma cópia simples da árvore de origem,
+ * mantendo o {@link DestinationIndex} usado pelo modo incremental.
+ * Arquivos a partir de {@code largeFileThreshold} bytes vão pelo {@link LargeFileCopier}.
+ * Com a opção compress, arquivos que valem a pena são gravados como "nome.gz" pelo {@link FileCompressor}.
+ * Com a opção checksum, o hash ({@link ContentHash}) de cada arquivo é calculado sobre os bytes
+ * copiados e guardado no índice, sem uma segunda leitura da origem.
+ */
+public class PlainDirectoryWriter implements DestinationWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlainDirectoryWriter.class);
+
+    private final Path destination;
+    private final BackupOptions options;
+    private final WarningSink warnings;
+    private final DestinationIndex index;
+    private final LargeFileCopier largeFileCopier;
+    private final long largeFileThreshold;
+
+    // Nulo quando a tarefa não usa compressão
+    private final FileCompressor compressor;
+
+    // Arquivos concluídos por uma execução anterior interrompida (diário da tarefa)
+    private final Set<String> alreadyCopied;
+
+    public PlainDirectoryWriter(Path destination, BackupOptions options, WarningSink warnings,
+                                LargeFileCopier largeFileCopier, long largeFileThreshold, Set<String> alreadyCopied,
+                                FileCompressor compressor) {
+        this.destination = destination;
+        this.options = options;
+        this.warnings = warnings;
+        this.index = loadIndex(destination);
+        this.largeFileCopier = largeFileCopier;
+        this.largeFileThreshold = largeFileThreshold;
+        this.alreadyCopied = alreadyCopied;
+        this.compressor = compressor;
+    }
+
+    @Override
+    public void createDirectory(ManifestEntry entry) throws IOException {
+        Files.createDirectories(destination.resolve(entry.getRelativePath()));
+    }
+
+    @Override
+    public boolean writeFile(Path file, ManifestEntry entry, TransferMonitor monitor) throws IOException {
+        if (alreadyCopied.contains(entry.getRelativePath())) {
+            index.record(entry, null);
+            return false;
+        }
+        if (options.isIncremental() && (index.isUnchanged(entry) || isOnlyTouched(file, entry))) {
+            return false;
+        }
+        Path target = destination.resolve(entry.getRelativePath());
+        CRC32C digest = options.isChecksum() ? new CRC32C() : null;
+        if (compressor != null && compressor.isWorthCompressing(file, entry.getSize())) {
+            compressor.compress(file, target, monitor, digest);
+            // Versão sem compressão de um backup anterior
+            Files.deleteIfExists(target);
+            index.record(entry, hashOf(digest));
+            return true;
+        }
+
+        if (entry.getSize() >= largeFileThreshold) {
+            largeFileCopier.copy(file, target, monitor, digest);
+        } else if (digest != null) {
+            copyHashed(file, target, digest);
+        } else {
+            Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+        if (compressor != null) {
+            Files.deleteIfExists(FileCompressor.compressedPath(target));
+        }
+        index.record(entry, hashOf(digest));
+        return true;
+    }
+
+    // Cópia em fluxo passando pelo hash; o destino só aparece completo, com os atributos do Files.copy
+    private static void copyHashed(Path file, Path target, CRC32C digest) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + LargeFileCopier.PART_SUFFIX);
+        try (InputStream in = new CheckedInputStream(Files.newInputStream(file), digest)) {
+            Files.copy(in, part, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        LargeFileCopier.copyAttributes(file, part);
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Só o mtime mudou (mesmo tamanho e mesmo hash do índice): atualiza o mtime no destino
+     * e no índice em vez de copiar de novo. Lê a origem, mas não grava nada.
+     */
+    private boolean isOnlyTouched(Path file, ManifestEntry entry) throws IOException {
+        DestinationIndex.Entry indexed = index.get(entry.getRelativePath());
+        if (indexed == null || indexed.getHash() == null || indexed.getSize() != entry.getSize()) {
+            return false;
+        }
+        Path target = destination.resolve(entry.getRelativePath());
+        Path stored = Files.exists(target) ? target : FileCompressor.compressedPath(target);
+        if (!Files.exists(stored) || !indexed.getHash().equals(ContentHash.of(file))) {
+            return false;
+        }
+        Files.setLastModifiedTime(stored, FileTime.fromMillis(entry.getLastModified()));
+        index.record(entry, indexed.getHash());
+        return true;
+    }
+
+    private static String hashOf(CRC32C digest) {
+        return digest != null ? ContentHash.format(digest) : null;
+    }
+
+    @Override
+    public FileSink openFile(Path file, ManifestEntry entry) throws IOException {
+        if (alreadyCopied.contains(entry.getRelativePath())) {
+            index.record(entry, null);
+            return null;
+        }
+        if (options.isIncremental() && index.isUnchanged(entry)) {
+            return null;
+        }
+        return new PlainFileSink(file, entry);
+    }
+
+    @Override
+    public long finish(List<ManifestEntry> files, boolean completed) throws IOException {
+        long deleted = 0;
+        if (completed && options.isIncremental() && options.isDeleteRemoved()) {
+            deleted = deleteRemoved(files);
+        }
+        // Mesmo cancelado, o índice guarda o que já foi copiado
+        index.save();
+        return deleted;
+    }
+
+    // Grava em "nome.part" (ou "nome.gz.part") e renomeia no commit
+    private class PlainFileSink implements FileSink {
+
+        private final Path file;
+        private final ManifestEntry entry;
+        private final Path target;
+        private Path part;
+        private OutputStream out;
+        private boolean compressed;
+        private long written;
+        private final CRC32C digest = options.isChecksum() ? new CRC32C() : null;
+
+        PlainFileSink(Path file, ManifestEntry entry) {
+            this.file = file;
+            this.entry = entry;
+            this.target = destination.resolve(entry.getRelativePath());
+        }
+
+        @Override
+        public void write(byte[] data, int length) throws IOException {
+            if (out == null) {
+                open(data, length);
+            }
+            out.write(data, 0, length);
+            if (digest != null) {
+                digest.update(data, 0, length);
+            }
+            written += length;
+        }
+
+        // A decisão de comprimir usa o primeiro bloco como amostra
+        private void open(byte[] firstBlock, int length) throws IOException {
+            compressed = compressor != null && compressor.isWorthCompressing(firstBlock, length, entry.getSize());
+            Path finalPath = compressed ? FileCompressor.compressedPath(target) : target;
+            part = finalPath.resolveSibling(finalPath.getFileName() + LargeFileCopier.PART_SUFFIX);
+            out = compressed
+                    ? compressor.openStream(part)
+                    : new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024);
+        }
+
+        @Override
+        public void commit() throws IOException {
+            if (out == null) {
+                // Arquivo vazio
+                open(new byte[0], 0);
+            }
+            out.close();
+            Path finalPath = compressed ? FileCompressor.compressedPath(target) : target;
+            if (compressed) {
+                compressor.record(written, Files.size(part));
+            }
+            LargeFileCopier.copyAttributes(file, part);
+            Files.move(part, finalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (compressor != null) {
+                Files.deleteIfExists(compressed ? target : FileCompressor.compressedPath(target));
+            }
+            index.record(entry, hashOf(digest));
+        }
+
+        @Override
+        public void abort() {
+            try {
+                if (out != null) {
+                    out.close();
+                }
+                if (part != null) {
+                    Files.deleteIfExists(part);
+                }
+            } catch (IOException e) {
+                logger.debug("Erro ao descartar {}: {}", part, e.getMessage());
+            }
+        }
+    }
+
+    private static DestinationIndex loadIndex(Path destination) {
+        try {
+            return DestinationIndex.load(destination);
+        } catch (IOException e) {
+            logger.warn("Índice do destino ilegível, será recriado: {}", e.getMessage());
+            return DestinationIndex.empty(destination);
+        }
+    }
+
+    // Remove do destino os arquivos indexados que não existem mais na origem
+    private long deleteRemoved(List<ManifestEntry> files) {
+        Set<String> current = new HashSet<>(files.size() * 2);
+        for (ManifestEntry entry : files) {
+            current.add(entry.getRelativePath());
+        }
+
+        long deleted = 0;
+        for (String relativePath : List.copyOf(index.paths())) {
+            if (current.contains(relativePath)) {
+                continue;
+            }
+            Path target = destination.resolve(relativePath);
+            try {
+                Files.deleteIfExists(target);
+                Files.deleteIfExists(FileCompressor.compressedPath(target));
+                index.remove(relativePath);
+                deleted++;
+            } catch (IOException e) {
+                warnings.warn(WarningCode.DELETE_FAILED, target, e);
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,30 @@
+package com.backup_manager.infrastructure.storage;
+
+/**
+ * Chamado entre os blocos de uma transferência longa.
+ * Permite contabilizar bytes e pausar ou cancelar no meio de um arquivo.
+ */
+@FunctionalInterface
+public interface TransferMonitor {
+
+    TransferMonitor NONE = bytes -> true;
+
+    /**
+     * @param bytes bytes gravados desde a última chamada
+     * @return false para interromper a transferência
+     */
+    boolean onChunk(long bytes);
+
+    /**
+     * Chamado quando os dados até offset já estão gravados em disco.
+     */
+    default void onCheckpoint(long offset) {
+    }
+
+    /**
+     * Offset a partir do qual uma transferência interrompida pode continuar.
+     */
+    default long resumeOffset() {
+        return 0;
+    }
+}
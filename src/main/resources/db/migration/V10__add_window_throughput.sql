@@ -0,0 +1 @@
+ALTER TABLE backup_tasks ADD COLUMN window_mb_per_sec NUMERIC(10, 2);
@@ -0,0 +1,3 @@
+ALTER TABLE backup_tasks ADD COLUMN copied_files BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN skipped_files BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN deleted_files BIGINT;
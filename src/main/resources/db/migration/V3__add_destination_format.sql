@@ -0,0 +1,3 @@
+ALTER TABLE backup_tasks ADD COLUMN destination_format VARCHAR(20);
+
+CREATE INDEX idx_backup_tasks_format ON backup_tasks (destination_format);
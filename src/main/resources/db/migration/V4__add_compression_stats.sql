@@ -0,0 +1,4 @@
+ALTER TABLE backup_tasks ADD COLUMN compressed_files BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN compression_ratio NUMERIC(6, 3);
+ALTER TABLE backup_tasks ADD COLUMN compression_saved_bytes BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN compression_saved_ms BIGINT;
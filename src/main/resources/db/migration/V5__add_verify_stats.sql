@@ -0,0 +1,6 @@
+ALTER TABLE backup_tasks ADD COLUMN verified_files BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN verify_mismatches BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN verify_bytes BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN verify_ms BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN verify_mb_per_sec NUMERIC(10, 2);
+ALTER TABLE backup_tasks ADD COLUMN verified_at TIMESTAMP;
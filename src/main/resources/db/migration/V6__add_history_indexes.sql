@@ -0,0 +1,8 @@
+-- Paginação do histórico por id (mais recentes primeiro), com e sem filtros
+CREATE INDEX idx_backup_tasks_status_id ON backup_tasks (status, id);
+CREATE INDEX idx_backup_tasks_source_id ON backup_tasks (source_path, id);
+CREATE INDEX idx_backup_tasks_started_at ON backup_tasks (started_at);
+
+-- /active: só as poucas tarefas ainda não finalizadas
+CREATE INDEX idx_backup_tasks_active ON backup_tasks (id)
+    WHERE status IN ('NA_FILA', 'EM_ANDAMENTO', 'PAUSADO');
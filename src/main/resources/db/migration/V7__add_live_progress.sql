@@ -0,0 +1,5 @@
+ALTER TABLE backup_tasks ADD COLUMN processed_files BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN total_files BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN processed_bytes BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN total_bytes BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN progress_updated_at TIMESTAMP;
@@ -0,0 +1,3 @@
+ALTER TABLE backup_tasks ADD COLUMN current_mb_per_sec NUMERIC(10, 2);
+ALTER TABLE backup_tasks ADD COLUMN eta_seconds BIGINT;
+ALTER TABLE backup_tasks ADD COLUMN avg_mb_per_sec NUMERIC(10, 2);
@@ -0,0 +1 @@
+ALTER TABLE backup_tasks ADD COLUMN options_json TEXT;
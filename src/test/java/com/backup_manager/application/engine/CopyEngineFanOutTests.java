@@ -0,0 +1,216 @@
+package com.backup_manager.application.engine;
+
+import com.backup_manager.application.metrics.BackupMetrics;
+import com.backup_manager.application.progress.ProgressEmitter;
+import com.backup_manager.application.progress.ProgressPersister;
+import com.backup_manager.application.progress.ProgressPublisher;
+import com.backup_manager.application.service.BackupJobScheduler;
+import com.backup_manager.application.service.DedupStoreService;
+import com.backup_manager.application.service.PackStoreService;
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.BackupTask;
+import com.backup_manager.domain.model.DestinationFormat;
+import com.backup_manager.domain.model.SourceManifest;
+import com.backup_manager.domain.model.Status;
+import com.backup_manager.domain.service.ActivePairRegistry;
+import com.backup_manager.domain.service.BackupTaskManager;
+import com.backup_manager.domain.service.SourceScanner;
+import com.backup_manager.infrastructure.storage.CopyStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class CopyEngineFanOutTests {
+
+    @TempDir
+    Path root;
+
+    private Path source;
+    private BackupTaskManager taskManager;
+    private DedupStoreService dedupStoreService;
+    private PackStoreService packStoreService;
+    private CopyEngine copyEngine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        source = root.resolve("source");
+        Random random = new Random(7);
+        for (int i = 0; i < 30; i++) {
+            Path file = source.resolve(i % 3 == 0 ? "sub/deep" : i % 3 == 1 ? "sub" : "").resolve("f" + i + ".bin");
+            Files.createDirectories(file.getParent());
+            byte[] data = new byte[i % 5 == 0 ? 100_000 + random.nextInt(200_000) : random.nextInt(20_000)];
+            random.nextBytes(data);
+            Files.write(file, data);
+        }
+
+        ProgressEmitter emitter = new ProgressEmitter(8, 8, 8);
+        taskManager = new BackupTaskManager(null, new ActivePairRegistry(null));
+        dedupStoreService = new DedupStoreService(null, 0);
+        packStoreService = new PackStoreService(null, 64, 512, 0);
+        copyEngine = new CopyEngine(
+                new ProgressPublisher(emitter, new ProgressPersister(null), 100, 5, 10_000),
+                new BackupMetrics(new SimpleMeterRegistry(), new BackupJobScheduler(4, 16, 2, ""), taskManager, emitter),
+                taskManager, dedupStoreService, packStoreService,
+                2, 1, 64, CopyStrategy.AUTO, 256);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DestinationFormat.class)
+    void everyDestinationFinishesAndReleasesTheStore(DestinationFormat format) throws IOException {
+        BackupOptions options = BackupOptions.defaults();
+        options.setFormat(format);
+        Map<Long, Path> destinations = destinations(2);
+        Map<Long, FanOutResult> results = new ConcurrentHashMap<>();
+
+        copyEngine.copyFanOut(scan(options), destinations, options, r -> results.put(r.getTaskId(), r));
+
+        assertThat(results).containsOnlyKeys(destinations.keySet());
+        for (Map.Entry<Long, Path> destination : destinations.entrySet()) {
+            FanOutResult result = results.get(destination.getKey());
+            assertThat(result.getError()).isNull();
+            assertThat(result.getResult().getCopiedFiles()).isEqualTo(30);
+            assertThat(result.getResult().getWarnings()).isZero();
+            assertSameTree(restore(format, destination.getValue()));
+        }
+    }
+
+    @Test
+    void pausedDestinationDoesNotHoldTheOthers() throws Exception {
+        BackupOptions options = BackupOptions.defaults();
+        Map<Long, Path> destinations = destinations(2);
+        register(1L);
+        register(2L);
+        taskManager.getControl(2L).pause();
+        Map<Long, CompletableFuture<FanOutResult>> results = Map.of(
+                1L, new CompletableFuture<>(), 2L, new CompletableFuture<>());
+        SourceManifest manifest = scan(options);
+
+        CompletableFuture<Void> fanOut = CompletableFuture.runAsync(() -> copyEngine.copyFanOut(
+                manifest, destinations, options, r -> results.get(r.getTaskId()).complete(r)));
+
+        assertThat(results.get(1L).get(10, TimeUnit.SECONDS).getResult().getCopiedFiles()).isEqualTo(30);
+        assertThat(results.get(2L)).isNotDone();
+        assertSameTree(destinations.get(1L));
+
+        taskManager.getControl(2L).resume();
+        fanOut.get(10, TimeUnit.SECONDS);
+
+        assertThat(results.get(2L).getNow(null).getResult().getCopiedFiles()).isEqualTo(30);
+        assertSameTree(destinations.get(2L));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = DestinationFormat.class, names = {"PLAIN", "PACKED"})
+    void committedFilesKeepTheSourceAttributes(DestinationFormat format) throws IOException {
+        assumeTrue(Files.getFileStore(source).supportsFileAttributeView(PosixFileAttributeView.class));
+        // f0 passa do limite de arquivo pequeno e, no PACKED, fica fora dos pacotes
+        Path file = source.resolve("sub/deep/f0.bin");
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-r-----"));
+        BackupOptions options = BackupOptions.defaults();
+        options.setFormat(format);
+        Map<Long, Path> destinations = destinations(2);
+
+        copyEngine.copyFanOut(scan(options), destinations, options, r -> { });
+
+        for (Path destination : destinations.values()) {
+            Path copied = format == DestinationFormat.PLAIN
+                    ? destination.resolve("sub/deep/f0.bin")
+                    : singleLargeFile(destination, "f0.bin");
+            assertThat(Files.getPosixFilePermissions(copied)).isEqualTo(Files.getPosixFilePermissions(file));
+            assertThat(Files.getLastModifiedTime(copied)).isEqualTo(Files.getLastModifiedTime(file));
+        }
+    }
+
+    @Test
+    void sourceThatShrankIsNotCommitted() throws IOException {
+        BackupOptions options = BackupOptions.defaults();
+        SourceManifest manifest = scan(options);
+        Path file = source.resolve("sub/deep/f0.bin");
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), (int) (Files.size(file) / 2)));
+        Map<Long, Path> destinations = destinations(2);
+        Map<Long, FanOutResult> results = new ConcurrentHashMap<>();
+
+        copyEngine.copyFanOut(manifest, destinations, options, r -> results.put(r.getTaskId(), r));
+
+        for (Map.Entry<Long, Path> destination : destinations.entrySet()) {
+            assertThat(results.get(destination.getKey()).getResult().getWarnings()).isEqualTo(1);
+            assertThat(destination.getValue().resolve("sub/deep/f0.bin")).doesNotExist();
+            assertThat(destination.getValue().resolve("sub/deep/f0.bin.part")).doesNotExist();
+        }
+    }
+
+    private static Path singleLargeFile(Path destination, String name) throws IOException {
+        try (Stream<Path> files = Files.walk(destination.resolve(".packs/files"))) {
+            return files.filter(p -> p.getFileName().toString().equals(name)).findFirst().orElseThrow();
+        }
+    }
+
+    private Map<Long, Path> destinations(int count) throws IOException {
+        Map<Long, Path> destinations = new LinkedHashMap<>();
+        for (long id = 1; id <= count; id++) {
+            destinations.put(id, Files.createDirectories(root.resolve("dest" + id)));
+        }
+        return destinations;
+    }
+
+    private SourceManifest scan(BackupOptions options) throws IOException {
+        return new SourceScanner(List.of()).scan(source, options);
+    }
+
+    private void register(Long taskId) {
+        BackupTask task = new BackupTask();
+        task.setId(taskId);
+        task.setStatus(Status.EM_ANDAMENTO);
+        taskManager.registerTask(taskId, task);
+    }
+
+    // Lock de leitura ainda preso faz a coleta de lixo devolver -1
+    private Path restore(DestinationFormat format, Path destination) throws IOException {
+        Path target = root.resolve("restored-" + destination.getFileName());
+        switch (format) {
+            case PLAIN -> {
+                return destination;
+            }
+            case DEDUP -> {
+                assertThat(dedupStoreService.collect(destination)).isNotNegative();
+                dedupStoreService.restore(destination.toString(), null, target.toString());
+            }
+            case PACKED -> {
+                assertThat(packStoreService.collect(destination)).isNotNegative();
+                packStoreService.restore(destination.toString(), null, target.toString());
+            }
+        }
+        return target;
+    }
+
+    private void assertSameTree(Path copy) throws IOException {
+        try (Stream<Path> files = Files.walk(source)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Path copied = copy.resolve(source.relativize(file));
+                assertThat(copied).exists();
+                assertThat(Files.mismatch(file, copied)).as(copied.toString()).isEqualTo(-1L);
+            }
+        }
+    }
+}
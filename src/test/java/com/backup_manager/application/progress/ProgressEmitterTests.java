@@ -0,0 +1,127 @@
+package com.backup_manager.application.progress;
+
+import com.backup_manager.application.dto.Progress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressEmitterTests {
+
+    private final ProgressEmitter emitter = new ProgressEmitter(8, 2, 8);
+
+    @AfterEach
+    void shutdown() {
+        emitter.shutdown();
+    }
+
+    @Test
+    void newConnectionGetsOnlyLiveEvents() throws InterruptedException {
+        emitter.sendControlEvent("start", 1L, "EM_ANDAMENTO");
+
+        RecordingEmitter client = subscribe(1L, null);
+        emitter.sendControlEvent("pause", 1L, "PAUSADO");
+
+        assertThat(client.next(1)).containsExactly("control:2");
+        client.assertNothingElse();
+    }
+
+    @Test
+    void reconnectReplaysMissedControlsAndOnlyTheLatestProgress() throws InterruptedException {
+        emitter.sendControlEvent("start", 1L, "EM_ANDAMENTO");
+        emitter.sendProgress(progress("1", 10));
+        emitter.sendProgress(progress("1", 20));
+        emitter.sendControlEvent("pause", 1L, "PAUSADO");
+
+        RecordingEmitter client = subscribe(1L, 1L);
+
+        assertThat(client.next(2)).containsExactly("progress:3", "control:4");
+        client.assertNothingElse();
+    }
+
+    @Test
+    void replayKeepsTaskFilterButSendsGeneralErrors() throws InterruptedException {
+        emitter.sendControlEvent("start", 1L, "EM_ANDAMENTO");
+        emitter.sendControlEvent("start", 2L, "EM_ANDAMENTO");
+        emitter.sendError("falha geral");
+
+        RecordingEmitter client = subscribe(2L, 0L);
+
+        assertThat(client.next(2)).containsExactly("control:2", "error:3");
+        client.assertNothingElse();
+    }
+
+    @Test
+    void replayHoldsOnlyTheLastControlEventsOfEachTask() throws InterruptedException {
+        emitter.sendControlEvent("start", 1L, "EM_ANDAMENTO");
+        emitter.sendControlEvent("pause", 1L, "PAUSADO");
+        emitter.sendControlEvent("resume", 1L, "EM_ANDAMENTO");
+
+        RecordingEmitter client = subscribe(null, 0L);
+
+        assertThat(client.next(2)).containsExactly("control:2", "control:3");
+        client.assertNothingElse();
+    }
+
+    @Test
+    void eventsAfterTheReplayFollowInOrder() throws InterruptedException {
+        emitter.sendControlEvent("start", 1L, "EM_ANDAMENTO");
+
+        RecordingEmitter client = subscribe(1L, 0L);
+        emitter.sendControlEvent("complete", 1L, "CONCLUIDO");
+
+        assertThat(client.next(2)).containsExactly("control:1", "control:2");
+    }
+
+    private RecordingEmitter subscribe(Long taskId, Long lastEventId) {
+        RecordingEmitter client = new RecordingEmitter();
+        emitter.register(client, taskId, lastEventId);
+        return client;
+    }
+
+    private static Progress progress(String taskId, long processedBytes) {
+        return new Progress(10, "/origem/a.bin", 1, 10, taskId, processedBytes, 1000);
+    }
+
+    // Guarda "nome:id" de cada evento enviado ao cliente
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern ID = Pattern.compile("(?m)^id:(\\d+)$");
+        private static final Pattern NAME = Pattern.compile("(?m)^event:(\\w+)$");
+
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            Matcher id = ID.matcher(text);
+            Matcher name = NAME.matcher(text);
+            // Roda no dispatcher: formato inesperado vai como texto cru para a asserção falhar no teste
+            sent.add(id.find() && name.find() ? name.group(1) + ":" + id.group(1) : text.toString());
+        }
+
+        List<String> next(int count) throws InterruptedException {
+            List<String> events = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String event = sent.poll(5, TimeUnit.SECONDS);
+                assertThat(event).as("evento %d de %d", i + 1, count).isNotNull();
+                events.add(event);
+            }
+            return events;
+        }
+
+        void assertNothingElse() throws InterruptedException {
+            assertThat(sent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        }
+    }
+}
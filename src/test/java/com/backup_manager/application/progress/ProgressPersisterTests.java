@@ -0,0 +1,65 @@
+package com.backup_manager.application.progress;
+
+import com.backup_manager.application.dto.Progress;
+import com.backup_manager.domain.model.TaskProgressSnapshot;
+import com.backup_manager.infrastructure.persistence.BackupRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ProgressPersisterTests {
+
+    private final BackupRepository repository = mock(BackupRepository.class);
+    private final ProgressPersister persister = new ProgressPersister(repository);
+
+    @Test
+    void persistsBothRatesAndTheEta() {
+        Progress progress = new Progress(40, "/origem/a.bin", 4, 10, "7", 400, 1000);
+        progress.setMbPerSec(new BigDecimal("12.50"));
+        progress.setAvgMbPerSec(new BigDecimal("10.00"));
+        progress.setEtaSeconds(60L);
+
+        persister.record(progress);
+        persister.flushAll();
+
+        TaskProgressSnapshot snapshot = captureSingle();
+        assertThat(snapshot.getTaskId()).isEqualTo(7L);
+        assertThat(snapshot.getProcessedBytes()).isEqualTo(400);
+        assertThat(snapshot.getCurrentMbPerSec()).isEqualByComparingTo("12.50");
+        assertThat(snapshot.getWindowMbPerSec()).isEqualByComparingTo("10.00");
+        assertThat(snapshot.getEtaSeconds()).isEqualTo(60);
+    }
+
+    @Test
+    void keepsOnlyTheLatestStatePerTask() {
+        persister.record(new Progress(10, "a", 1, 10, "7", 100, 1000));
+        persister.record(new Progress(20, "b", 2, 10, "7", 200, 1000));
+        persister.flush(7L);
+        persister.flushAll();
+
+        assertThat(captureSingle().getProcessedBytes()).isEqualTo(200);
+    }
+
+    @Test
+    void nothingPendingWritesNothing() {
+        persister.flushAll();
+
+        verify(repository, never()).updateProgress(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private TaskProgressSnapshot captureSingle() {
+        ArgumentCaptor<List<TaskProgressSnapshot>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repository).updateProgress(batch.capture());
+        assertThat(batch.getValue()).hasSize(1);
+        return batch.getValue().getFirst();
+    }
+}
@@ -0,0 +1,77 @@
+package com.backup_manager.application.progress;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThroughputEstimatorTests {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    void noRateUntilTwoSamples() {
+        ThroughputEstimator estimator = new ThroughputEstimator(10 * SECOND);
+
+        assertThat(estimator.hasRate()).isFalse();
+        assertThat(estimator.etaSeconds(100 * MB)).isNull();
+
+        estimator.sample(0, 0);
+        assertThat(estimator.hasRate()).isFalse();
+        assertThat(estimator.etaSeconds(100 * MB)).isNull();
+    }
+
+    @Test
+    void rateAndEtaFromSamples() {
+        ThroughputEstimator estimator = new ThroughputEstimator(10 * SECOND);
+        estimator.sample(0, 0);
+        estimator.sample(SECOND, 100 * MB);
+
+        assertThat(estimator.hasRate()).isTrue();
+        assertThat(estimator.instantMbPerSec()).isEqualByComparingTo(new BigDecimal("100"));
+        assertThat(estimator.windowMbPerSec()).isEqualByComparingTo(new BigDecimal("100"));
+        assertThat(estimator.etaSeconds(200 * MB)).isEqualTo(2);
+        assertThat(estimator.etaSeconds(150 * MB)).isEqualTo(2);
+        assertThat(estimator.etaSeconds(-1)).isZero();
+    }
+
+    @Test
+    void windowDropsOldSamples() {
+        ThroughputEstimator estimator = new ThroughputEstimator(2 * SECOND);
+        long bytes = 0;
+        for (int s = 0; s <= 5; s++) {
+            estimator.sample(s * SECOND, bytes);
+            bytes += (s < 3 ? 10 : 50) * MB;
+        }
+
+        // Amostras de 3s a 5s: só a vazão nova entra na janela
+        assertThat(estimator.instantMbPerSec()).isEqualByComparingTo(new BigDecimal("50"));
+        assertThat(estimator.windowMbPerSec()).isEqualByComparingTo(new BigDecimal("50"));
+        assertThat(estimator.etaSeconds(100 * MB)).isEqualTo(2);
+    }
+
+    @Test
+    void windowSmoothsWithinItsSpan() {
+        ThroughputEstimator estimator = new ThroughputEstimator(10 * SECOND);
+        estimator.sample(0, 0);
+        estimator.sample(SECOND, 10 * MB);
+        estimator.sample(2 * SECOND, 40 * MB);
+
+        assertThat(estimator.instantMbPerSec()).isEqualByComparingTo(new BigDecimal("30"));
+        assertThat(estimator.windowMbPerSec()).isEqualByComparingTo(new BigDecimal("20"));
+    }
+
+    @Test
+    void resetClearsTheRate() {
+        ThroughputEstimator estimator = new ThroughputEstimator(10 * SECOND);
+        estimator.sample(0, 0);
+        estimator.sample(SECOND, 100 * MB);
+        estimator.reset();
+
+        assertThat(estimator.hasRate()).isFalse();
+        assertThat(estimator.instantMbPerSec()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(estimator.etaSeconds(100 * MB)).isNull();
+    }
+}
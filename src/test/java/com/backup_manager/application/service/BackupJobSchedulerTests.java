@@ -0,0 +1,138 @@
+package com.backup_manager.application.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BackupJobSchedulerTests {
+
+    private static final List<Path> NO_PATHS = List.of();
+
+    @Test
+    void admitsUpToRunningPlusQueueCapacity() {
+        BackupJobScheduler scheduler = new BackupJobScheduler(2, 1, 0, "");
+
+        assertThat(scheduler.tryAdmit()).isTrue();
+        assertThat(scheduler.tryAdmit(2)).isTrue();
+        assertThat(scheduler.tryAdmit()).isFalse();
+
+        scheduler.release();
+        assertThat(scheduler.tryAdmit(2)).isFalse();
+        assertThat(scheduler.tryAdmit()).isTrue();
+    }
+
+    @Test
+    void resumedTasksBypassTheLimit() {
+        BackupJobScheduler scheduler = new BackupJobScheduler(1, 0, 0, "");
+
+        assertThat(scheduler.tryAdmit()).isTrue();
+        scheduler.admit();
+
+        assertThat(scheduler.getQueuedCount()).isEqualTo(2);
+        assertThat(scheduler.tryAdmit()).isFalse();
+    }
+
+    @Test
+    void runsAtMostMaxConcurrentAndQueuesTheRest() throws InterruptedException {
+        BackupJobScheduler scheduler = new BackupJobScheduler(2, 8, 0, "");
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(6);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        assertThat(scheduler.tryAdmit(6)).isTrue();
+        for (long id = 1; id <= 6; id++) {
+            scheduler.submit(id, NO_PATHS, () -> {
+                peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                finished.countDown();
+            });
+        }
+
+        awaitRunning(scheduler, 2);
+        assertThat(scheduler.getQueuedCount()).isEqualTo(4);
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(peak.get()).isEqualTo(2);
+        awaitRunning(scheduler, 0);
+        assertThat(scheduler.getQueuedCount()).isZero();
+    }
+
+    @Test
+    void failingJobFreesItsSlot() throws InterruptedException {
+        BackupJobScheduler scheduler = new BackupJobScheduler(1, 0, 0, "");
+        CountDownLatch ran = new CountDownLatch(1);
+
+        assertThat(scheduler.tryAdmit()).isTrue();
+        scheduler.submit(1L, NO_PATHS, () -> {
+            throw new IllegalStateException("falha");
+        });
+        awaitAdmitted(scheduler);
+
+        assertThat(scheduler.tryAdmit()).isTrue();
+        scheduler.submit(2L, NO_PATHS, ran::countDown);
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void jobsOnTheSameVolumeRespectThePerStoreLimit(@TempDir Path dir) throws InterruptedException {
+        BackupJobScheduler scheduler = new BackupJobScheduler(4, 8, 1, "");
+        List<Path> paths = List.of(dir.resolve("origem"), dir.resolve("destino"));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(3);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        assertThat(scheduler.tryAdmit(3)).isTrue();
+        for (long id = 1; id <= 3; id++) {
+            scheduler.submit(id, paths, () -> {
+                peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                finished.countDown();
+            });
+        }
+
+        // Quem espera o volume não ocupa vaga global
+        awaitRunning(scheduler, 1);
+        Thread.sleep(50);
+        assertThat(scheduler.getRunningCount()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(peak.get()).isEqualTo(1);
+    }
+
+    private static void awaitRunning(BackupJobScheduler scheduler, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.getRunningCount() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(scheduler.getRunningCount()).isEqualTo(expected);
+    }
+
+    private static void awaitAdmitted(BackupJobScheduler scheduler) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.getRunningCount() + scheduler.getQueuedCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(scheduler.getRunningCount() + scheduler.getQueuedCount()).isZero();
+    }
+}
@@ -0,0 +1,115 @@
+package com.backup_manager.domain.service;
+
+import com.backup_manager.domain.exception.ActiveTaskConflictException;
+import com.backup_manager.domain.model.BackupTask;
+import com.backup_manager.infrastructure.persistence.BackupRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivePairRegistryTests {
+
+    private final BackupRepository repository = mock(BackupRepository.class);
+    private final ActivePairRegistry registry = new ActivePairRegistry(repository);
+
+    @Test
+    void rebuildLoadsActiveTasksFromTheDatabase() {
+        when(repository.findByStatusIn(BackupRepository.ACTIVE_STATUSES))
+                .thenReturn(List.of(task(1L, "/a", "/x"), task(2L, "/b", "/y")));
+
+        registry.rebuild();
+
+        assertThat(registry.activeTaskId("/a", "/x")).contains(1L);
+        assertThat(registry.activeTaskId("/b", "/y")).contains(2L);
+        assertThat(registry.activeTaskId("/a", "/y")).isEmpty();
+        assertThatThrownBy(() -> registry.claim(List.of(task(null, "/a", "/x"))))
+                .isInstanceOfSatisfying(ActiveTaskConflictException.class,
+                        e -> assertThat(e.getTaskId()).isEqualTo(1L));
+    }
+
+    @Test
+    void claimIsAllOrNothing() {
+        registry.claim(List.of(task(null, "/b", "/y")));
+
+        assertThatThrownBy(() -> registry.claim(List.of(task(null, "/a", "/x"), task(null, "/b", "/y"))))
+                .isInstanceOfSatisfying(ActiveTaskConflictException.class,
+                        e -> assertThat(e.getTaskId()).isNull());
+
+        // O primeiro par do lote recusado foi devolvido
+        registry.claim(List.of(task(null, "/a", "/x")));
+    }
+
+    @Test
+    void reservationFollowsTheTaskUntilRelease() {
+        BackupTask pending = task(null, "/a", "/x");
+        registry.claim(List.of(pending));
+        assertThat(registry.activeTaskId("/a", "/x")).isEmpty();
+
+        pending.setId(5L);
+        registry.bind(List.of(pending));
+        assertThat(registry.activeTaskId("/a", "/x")).contains(5L);
+
+        // Só a dona libera o par
+        registry.release(task(6L, "/a", "/x"));
+        assertThat(registry.activeTaskId("/a", "/x")).contains(5L);
+
+        registry.release(pending);
+        assertThat(registry.activeTaskId("/a", "/x")).isEmpty();
+        registry.claim(List.of(task(null, "/a", "/x")));
+    }
+
+    @Test
+    void unclaimReturnsReservationsThatWereNeverSaved() {
+        List<BackupTask> tasks = List.of(task(null, "/a", "/x"), task(null, "/b", "/y"));
+        registry.claim(tasks);
+
+        registry.unclaim(tasks);
+
+        registry.claim(tasks);
+    }
+
+    @Test
+    void concurrentClaimsForTheSamePairLetOnlyOneThrough() throws InterruptedException {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    registry.claim(List.of(task(null, "/a", "/x")));
+                    accepted.incrementAndGet();
+                } catch (ActiveTaskConflictException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(accepted.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(threads - 1);
+    }
+
+    private static BackupTask task(Long id, String source, String destination) {
+        BackupTask task = new BackupTask();
+        task.setId(id);
+        task.setSourcePath(source);
+        task.setDestinationPath(destination);
+        return task;
+    }
+}
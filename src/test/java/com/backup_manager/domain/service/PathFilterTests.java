@@ -0,0 +1,120 @@
+package com.backup_manager.domain.service;
+
+import com.backup_manager.domain.model.BackupOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PathFilterTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void literalNameExcludesAtAnyDepthAndPrunesDirectories() throws IOException {
+        PathFilter filter = PathFilter.compile(List.of("node_modules"), BackupOptions.defaults());
+
+        assertThat(filter.skipDirectory(Path.of("node_modules"))).isTrue();
+        assertThat(filter.skipDirectory(Path.of("web/app/node_modules"))).isTrue();
+        assertThat(filter.skipDirectory(Path.of("web/app/node_modules_old"))).isFalse();
+        assertThat(filter.acceptFile(Path.of("web/node_modules"), attrs(10))).isFalse();
+    }
+
+    @Test
+    void globWithoutSlashMatchesTheName() throws IOException {
+        PathFilter filter = PathFilter.compile(List.of(), options(List.of(), List.of("*.tmp")));
+
+        assertThat(filter.acceptFile(Path.of("a.tmp"), attrs(10))).isFalse();
+        assertThat(filter.acceptFile(Path.of("deep/dir/b.tmp"), attrs(10))).isFalse();
+        assertThat(filter.acceptFile(Path.of("deep/dir/b.tmp.keep"), attrs(10))).isTrue();
+    }
+
+    @Test
+    void globWithSlashMatchesThePathFromTheSourceRoot() throws IOException {
+        PathFilter filter = PathFilter.compile(List.of(), options(List.of(), List.of("build/**")));
+
+        assertThat(filter.acceptFile(Path.of("build/out/App.class"), attrs(10))).isFalse();
+        assertThat(filter.skipDirectory(Path.of("build/out"))).isTrue();
+        assertThat(filter.acceptFile(Path.of("src/build/App.java"), attrs(10))).isTrue();
+    }
+
+    @Test
+    void regexMatchesTheRelativePath() throws IOException {
+        PathFilter filter = PathFilter.compile(List.of(), options(List.of(), List.of("regex:logs/.*\\.log")));
+
+        assertThat(filter.acceptFile(Path.of("logs/app.log"), attrs(10))).isFalse();
+        assertThat(filter.acceptFile(Path.of("app.log"), attrs(10))).isTrue();
+    }
+
+    @Test
+    void includesOnlyApplyToFiles() throws IOException {
+        PathFilter filter = PathFilter.compile(List.of(), options(List.of("*.java"), List.of()));
+
+        assertThat(filter.skipDirectory(Path.of("src"))).isFalse();
+        assertThat(filter.acceptFile(Path.of("src/Main.java"), attrs(10))).isTrue();
+        assertThat(filter.acceptFile(Path.of("src/readme.md"), attrs(10))).isFalse();
+    }
+
+    @Test
+    void excludeWinsOverInclude() throws IOException {
+        PathFilter filter = PathFilter.compile(List.of(), options(List.of("*.java"), List.of("generated/**")));
+
+        assertThat(filter.acceptFile(Path.of("generated/Dto.java"), attrs(10))).isFalse();
+    }
+
+    @Test
+    void sizeAndAgeFilters() throws IOException {
+        BackupOptions options = BackupOptions.defaults();
+        options.setMinSize(10L);
+        options.setMaxSize(100L);
+        options.setMaxAgeDays(7);
+        PathFilter filter = PathFilter.compile(List.of(), options);
+
+        assertThat(filter.acceptFile(Path.of("small"), attrs(9))).isFalse();
+        assertThat(filter.acceptFile(Path.of("fits"), attrs(50))).isTrue();
+        assertThat(filter.acceptFile(Path.of("big"), attrs(101))).isFalse();
+        assertThat(filter.acceptFile(Path.of("old"), attrs(50, Instant.now().minus(Duration.ofDays(30))))).isFalse();
+    }
+
+    @Test
+    void blankRulesAreIgnored() throws IOException {
+        PathFilter filter = PathFilter.compile(List.of(" ", ""), BackupOptions.defaults());
+
+        assertThat(filter.acceptFile(Path.of("any"), attrs(1))).isTrue();
+    }
+
+    @Test
+    void invalidRegexIsRejected() {
+        assertThatThrownBy(() -> PathFilter.compile(List.of(), options(List.of(), List.of("regex:[unclosed"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static BackupOptions options(List<String> include, List<String> exclude) {
+        BackupOptions options = BackupOptions.defaults();
+        options.setInclude(include);
+        options.setExclude(exclude);
+        return options;
+    }
+
+    private BasicFileAttributes attrs(int size) throws IOException {
+        return attrs(size, Instant.now());
+    }
+
+    private BasicFileAttributes attrs(int size, Instant modified) throws IOException {
+        Path file = Files.createTempFile(dir, "f", null);
+        Files.write(file, new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+        return Files.readAttributes(file, BasicFileAttributes.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.backup_manager.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskControlTests {
+
+    @Test
+    void startsRunning() {
+        TaskControl control = new TaskControl(null);
+
+        assertThat(control.isRunning()).isTrue();
+        assertThat(control.isPaused()).isFalse();
+        assertThat(control.isCancelled()).isFalse();
+    }
+
+    @Test
+    void pauseAndResumeOnlyFromTheExpectedState() {
+        TaskControl control = new TaskControl(null);
+
+        assertThat(control.resume()).isFalse();
+        assertThat(control.pause()).isTrue();
+        assertThat(control.pause()).isFalse();
+        assertThat(control.isPaused()).isTrue();
+        assertThat(control.resume()).isTrue();
+        assertThat(control.isRunning()).isTrue();
+    }
+
+    @Test
+    void cancelIsFinal() {
+        TaskControl control = new TaskControl(null);
+        control.pause();
+        control.cancel();
+
+        assertThat(control.isCancelled()).isTrue();
+        assertThat(control.pause()).isFalse();
+        assertThat(control.resume()).isFalse();
+    }
+
+    @Test
+    void awaitResumeReturnsImmediatelyWhenNotPaused() throws InterruptedException {
+        TaskControl control = new TaskControl(null);
+
+        assertThat(control.awaitResume()).isTrue();
+        control.cancel();
+        assertThat(control.awaitResume()).isFalse();
+    }
+
+    @Test
+    void awaitResumeBlocksUntilResumed() throws Exception {
+        TaskControl control = new TaskControl(null);
+        control.pause();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> await(control));
+        assertThatThrownBy(() -> waiter.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        control.resume();
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void cancelWakesPausedWaiters() throws Exception {
+        TaskControl control = new TaskControl(null);
+        control.pause();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> await(control));
+        control.cancel();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    private static boolean await(TaskControl control) {
+        try {
+            return control.awaitResume();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
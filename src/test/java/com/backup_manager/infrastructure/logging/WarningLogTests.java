@@ -0,0 +1,75 @@
+package com.backup_manager.infrastructure.logging;
+
+import com.backup_manager.domain.model.WarningCode;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarningLogTests {
+
+    @TempDir
+    Path destination;
+
+    @Test
+    void noWarningsCreatesNoFile() {
+        WarningLog log = new WarningLog(destination.resolve(WarningLog.FILE_NAME));
+        log.close();
+
+        assertThat(destination.resolve(WarningLog.FILE_NAME)).doesNotExist();
+        assertThat(log.getCounts()).isEmpty();
+    }
+
+    @Test
+    void warningAfterCloseIsWrittenDirectly() throws IOException {
+        Path file = destination.resolve(WarningLog.FILE_NAME);
+        WarningLog log = new WarningLog(file);
+        log.warn(WarningCode.VISIT_FAILED, destination.resolve("a"), new IOException("a"));
+        log.close();
+        log.warn(WarningCode.VISIT_FAILED, destination.resolve("b"), null);
+        log.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\tIOException\t").endsWith(destination.resolve("a").toString());
+        assertThat(lines.get(1)).endsWith(destination.resolve("b").toString());
+        assertThat(log.getTotal()).isEqualTo(2);
+    }
+
+    @RepeatedTest(20)
+    void warningsRacingCloseAreNotLost() throws Exception {
+        Path file = destination.resolve(WarningLog.FILE_NAME);
+        Files.deleteIfExists(file);
+        WarningLog log = new WarningLog(file);
+        int threads = 4;
+        int perThread = 500;
+        CountDownLatch started = new CountDownLatch(threads);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                started.countDown();
+                for (int i = 0; i < perThread; i++) {
+                    log.warn(WarningCode.VISIT_FAILED, destination.resolve(id + "-" + i), null);
+                }
+            }));
+        }
+        started.await();
+        log.close();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(log.getTotal()).isEqualTo((long) threads * perThread);
+        assertThat(Files.readAllLines(file)).hasSize(threads * perThread);
+    }
+}
@@ -0,0 +1,84 @@
+package com.backup_manager.infrastructure.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BackupJournalTests {
+
+    private static final Long TASK_ID = 7L;
+
+    @TempDir
+    Path destination;
+
+    @Test
+    void newJournalIsNotResumed() throws IOException {
+        try (BackupJournal journal = BackupJournal.open(destination, TASK_ID)) {
+            assertThat(journal.isResumed()).isFalse();
+            assertThat(journal.getCompleted()).isEmpty();
+        }
+        assertThat(BackupJournal.pathFor(destination, TASK_ID)).exists();
+    }
+
+    @Test
+    void reopenLoadsCompletedFilesAndChunkOffsets() throws IOException {
+        try (BackupJournal journal = BackupJournal.open(destination, TASK_ID)) {
+            journal.fileDone("a.txt");
+            journal.chunkDone("big.bin", 1024);
+            journal.chunkDone("big.bin", 2048);
+            journal.chunkDone("done.bin", 512);
+            journal.fileDone("done.bin");
+            journal.fileDone("dir/with\ttab");
+        }
+
+        try (BackupJournal journal = BackupJournal.open(destination, TASK_ID)) {
+            assertThat(journal.isResumed()).isTrue();
+            assertThat(journal.getCompleted()).containsExactlyInAnyOrder("a.txt", "done.bin", "dir/with\ttab");
+            assertThat(journal.chunkOffset("big.bin")).isEqualTo(2048);
+            assertThat(journal.chunkOffset("done.bin")).isZero();
+            assertThat(journal.chunkOffset("other")).isZero();
+        }
+    }
+
+    @Test
+    void truncatedLastLineIsIgnored() throws IOException {
+        try (BackupJournal journal = BackupJournal.open(destination, TASK_ID)) {
+            journal.chunkDone("big.bin", 1024);
+        }
+        Files.writeString(BackupJournal.pathFor(destination, TASK_ID), "C\t20x\tbig.bin\nC\t4096",
+                StandardOpenOption.APPEND);
+
+        try (BackupJournal journal = BackupJournal.open(destination, TASK_ID)) {
+            assertThat(journal.chunkOffset("big.bin")).isEqualTo(1024);
+        }
+    }
+
+    @Test
+    void deleteRemovesTheFile() throws IOException {
+        BackupJournal journal = BackupJournal.open(destination, TASK_ID);
+        journal.fileDone("a.txt");
+        journal.delete();
+
+        assertThat(Files.exists(BackupJournal.pathFor(destination, TASK_ID))).isFalse();
+    }
+
+    @Test
+    void disabledJournalWritesNothing() throws IOException {
+        BackupJournal journal = BackupJournal.disabled();
+        journal.fileDone("a.txt");
+        journal.chunkDone("big.bin", 1024);
+        journal.delete();
+
+        assertThat(journal.isResumed()).isFalse();
+        assertThat(journal.getCompleted()).isEmpty();
+        try (var files = Files.list(destination)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
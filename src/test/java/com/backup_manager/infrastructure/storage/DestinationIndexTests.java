@@ -0,0 +1,74 @@
+package com.backup_manager.infrastructure.storage;
+
+import com.backup_manager.domain.model.ManifestEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DestinationIndexTests {
+
+    @TempDir
+    Path destination;
+
+    @Test
+    void missingIndexLoadsEmpty() throws IOException {
+        assertThat(DestinationIndex.load(destination).size()).isZero();
+    }
+
+    @Test
+    void saveAndLoadRoundTrip() throws IOException {
+        DestinationIndex index = DestinationIndex.empty(destination);
+        index.record(new ManifestEntry("a.txt", 10, 1000, false), "abc123");
+        index.record(new ManifestEntry("dir/b.bin", 20, 2000, false), null);
+        index.record(new ManifestEntry("dir/with\ttab", 30, 3000, false), "def");
+        index.save();
+
+        DestinationIndex loaded = DestinationIndex.load(destination);
+
+        assertThat(loaded.size()).isEqualTo(3);
+        assertThat(loaded.get("a.txt").getSize()).isEqualTo(10);
+        assertThat(loaded.get("a.txt").getLastModified()).isEqualTo(1000);
+        assertThat(loaded.get("a.txt").getHash()).isEqualTo("abc123");
+        assertThat(loaded.get("dir/b.bin").getHash()).isNull();
+        assertThat(loaded.get("dir/with\ttab").getSize()).isEqualTo(30);
+        assertThat(Files.exists(destination.resolve(DestinationIndex.FILE_NAME + ".tmp"))).isFalse();
+    }
+
+    @Test
+    void unchangedComparesSizeAndModification() throws IOException {
+        DestinationIndex index = DestinationIndex.empty(destination);
+        index.record(new ManifestEntry("a.txt", 10, 1000, false), null);
+
+        assertThat(index.isUnchanged(new ManifestEntry("a.txt", 10, 1000, false))).isTrue();
+        assertThat(index.isUnchanged(new ManifestEntry("a.txt", 11, 1000, false))).isFalse();
+        assertThat(index.isUnchanged(new ManifestEntry("a.txt", 10, 1001, false))).isFalse();
+        assertThat(index.isUnchanged(new ManifestEntry("b.txt", 10, 1000, false))).isFalse();
+    }
+
+    @Test
+    void removedEntriesAreNotSaved() throws IOException {
+        DestinationIndex index = DestinationIndex.empty(destination);
+        index.record(new ManifestEntry("a.txt", 10, 1000, false), null);
+        index.record(new ManifestEntry("b.txt", 10, 1000, false), null);
+        index.remove("a.txt");
+        index.save();
+
+        assertThat(DestinationIndex.load(destination).paths()).containsExactly("b.txt");
+    }
+
+    @Test
+    void shortLinesAreSkippedAndBadNumbersRejected() throws IOException {
+        Path file = destination.resolve(DestinationIndex.FILE_NAME);
+        Files.writeString(file, "10\t1000\t\ta.txt\nincompleta\n");
+        assertThat(DestinationIndex.load(destination).paths()).containsExactly("a.txt");
+
+        Files.writeString(file, "x\t1000\t\ta.txt\n");
+        assertThatThrownBy(() -> DestinationIndex.load(destination)).isInstanceOf(IOException.class);
+    }
+}
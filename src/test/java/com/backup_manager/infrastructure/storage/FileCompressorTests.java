@@ -0,0 +1,88 @@
+package com.backup_manager.infrastructure.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileCompressorTests {
+
+    @TempDir
+    Path dir;
+
+    private final CompressionStats stats = new CompressionStats();
+    private final FileCompressor compressor = new FileCompressor(stats);
+
+    @Test
+    void smallFilesAreNotCompressed() {
+        byte[] text = "a".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+        assertThat(compressor.isWorthCompressing(text, text.length, text.length)).isFalse();
+    }
+
+    @Test
+    void compressibleSampleIsWorthCompressing() {
+        byte[] text = "linha de log repetida\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+        assertThat(compressor.isWorthCompressing(text, text.length, text.length)).isTrue();
+    }
+
+    @Test
+    void randomSampleIsNotWorthCompressing() {
+        byte[] random = random(128 * 1024);
+
+        assertThat(compressor.isWorthCompressing(random, random.length, random.length)).isFalse();
+    }
+
+    @Test
+    void onlyTheFirstBlockIsSampled() throws IOException {
+        // Começo aleatório e resto compressível: a amostra decide que não compensa
+        byte[] content = new byte[256 * 1024];
+        System.arraycopy(random(64 * 1024), 0, content, 0, 64 * 1024);
+        Path file = dir.resolve("mixed.bin");
+        Files.write(file, content);
+
+        assertThat(compressor.isWorthCompressing(file, content.length)).isFalse();
+    }
+
+    @Test
+    void compressWritesGzipAndRecordsStats() throws IOException {
+        byte[] content = "conteúdo compressível\n".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        Path file = dir.resolve("a.log");
+        Files.write(file, content);
+        Path target = dir.resolve("out/a.log");
+        Files.createDirectories(target.getParent());
+        CRC32C digest = new CRC32C();
+
+        compressor.compress(file, target, TransferMonitor.NONE, digest);
+
+        Path compressed = FileCompressor.compressedPath(target);
+        assertThat(compressed.getFileName().toString()).isEqualTo("a.log.gz");
+        assertThat(Files.exists(target)).isFalse();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        CRC32C expected = new CRC32C();
+        expected.update(content);
+        assertThat(digest.getValue()).isEqualTo(expected.getValue());
+        assertThat(stats.getFiles()).isEqualTo(1);
+        assertThat(stats.getInputBytes()).isEqualTo(content.length);
+        assertThat(stats.getOutputBytes()).isEqualTo(Files.size(compressed));
+        assertThat(Files.getLastModifiedTime(compressed)).isEqualTo(Files.getLastModifiedTime(file));
+    }
+
+    private static byte[] random(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
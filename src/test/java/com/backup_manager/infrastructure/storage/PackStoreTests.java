@@ -0,0 +1,126 @@
+package com.backup_manager.infrastructure.storage;
+
+import com.backup_manager.infrastructure.storage.PackStore.Kind;
+import com.backup_manager.infrastructure.storage.PackStore.PackedEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PackStoreTests {
+
+    @TempDir
+    Path destination;
+
+    private PackStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new PackStore(destination);
+        store.init();
+    }
+
+    @Test
+    void readsIndexLines() throws IOException {
+        Path index = write(
+                PackStore.SOURCE_HEADER + "/origem",
+                "D\t0\t100\t-\t0\t\tu:g:rwxr-x---\tdir",
+                "P\t10\t200\tb2-0\t64\tcafe\t\tdir/a.txt",
+                "F\t5000\t300\tb2\t0\t\tu:g:rw-r--r--\tdir/with\ttab");
+
+        List<PackedEntry> entries = store.readIndex(index);
+
+        assertThat(entries).extracting(PackedEntry::getKind).containsExactly(Kind.DIRECTORY, Kind.PACKED, Kind.FILE);
+        assertThat(entries.get(0).getAttributes()).isEqualTo("u:g:rwxr-x---");
+        assertThat(entries.get(1).getPack()).isEqualTo("b2-0");
+        assertThat(entries.get(1).getOffset()).isEqualTo(64);
+        assertThat(entries.get(1).getLastModified()).isEqualTo(200);
+        assertThat(entries.get(1).getHash()).isEqualTo("cafe");
+        assertThat(entries.get(1).getAttributes()).isNull();
+        assertThat(entries.get(1).getRelativePath()).isEqualTo("dir/a.txt");
+        assertThat(entries.get(2).getSize()).isEqualTo(5000);
+        assertThat(entries.get(2).getHash()).isNull();
+        assertThat(entries.get(2).getRelativePath()).isEqualTo("dir/with\ttab");
+        assertThat(store.readSource(index)).isEqualTo("/origem");
+    }
+
+    @Test
+    void formatLineRoundTrip() throws IOException {
+        PackedEntry entry = new PackedEntry(Kind.PACKED, 10, 200, "b3-1", 128, "beef", "u:g:rw-------", "x/y.txt");
+        Path index = write(PackStore.formatLine(entry));
+
+        PackedEntry read = store.readIndex(index).getFirst();
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(entry);
+    }
+
+    @Test
+    void shortLinesAreSkippedAndBadValuesRejected() throws IOException {
+        assertThat(store.readIndex(write("P\t10\t200\tb-0\t0\t\ta.txt"))).isEmpty();
+
+        Path unknownKind = write("X\t10\t200\t-\t0\t\t\ta.txt");
+        assertThatThrownBy(() -> store.readIndex(unknownKind)).isInstanceOf(IOException.class);
+
+        Path badNumber = write("P\tdez\t200\tb-0\t0\t\t\ta.txt");
+        assertThatThrownBy(() -> store.readIndex(badNumber)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void largeFilesLiveInTheFolderOfTheBackupThatWroteThem() {
+        PackedEntry entry = new PackedEntry(Kind.FILE, 1, 0, "b4", 0, null, null, "dir/big.bin");
+
+        assertThat(store.filePath(entry)).isEqualTo(store.fileDir("b4").resolve("dir/big.bin"));
+    }
+
+    @Test
+    void intactChecksTheDataOnDisk() throws IOException {
+        Files.write(store.packPath("b5-0"), new byte[100]);
+        Files.createDirectories(store.fileDir("b5"));
+        Files.write(store.fileDir("b5").resolve("big.bin"), new byte[50]);
+
+        assertThat(store.isIntact(new PackedEntry(Kind.PACKED, 40, 0, "b5-0", 60, null, null, "a"))).isTrue();
+        assertThat(store.isIntact(new PackedEntry(Kind.PACKED, 41, 0, "b5-0", 60, null, null, "a"))).isFalse();
+        assertThat(store.isIntact(new PackedEntry(Kind.FILE, 50, 0, "b5", 0, null, null, "big.bin"))).isTrue();
+        assertThat(store.isIntact(new PackedEntry(Kind.FILE, 51, 0, "b5", 0, null, null, "big.bin"))).isFalse();
+        assertThat(store.isIntact(new PackedEntry(Kind.FILE, 1, 0, "b5", 0, null, null, "missing"))).isFalse();
+    }
+
+    @Test
+    void restoreAppliesRecordedAttributes() throws IOException {
+        assumeTrue(Files.getFileStore(destination).supportsFileAttributeView(PosixFileAttributeView.class));
+        Path sample = Files.createTempFile(destination, "s", null);
+        String owner = PackStore.readAttributes(sample).split(":")[0];
+        String group = PackStore.readAttributes(sample).split(":")[1];
+        Files.write(store.packPath("b6-0"), "conteúdo".getBytes());
+        Path index = write(
+                "D\t0\t1000\t-\t0\t\t" + owner + ":" + group + ":r-x------\tdir",
+                "P\t5\t2000\tb6-0\t0\t\t" + owner + ":" + group + ":rw-r-----\tdir/a.txt");
+        Path target = destination.resolve("restored");
+
+        store.restore(index, target);
+
+        Path file = target.resolve("dir/a.txt");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file))).isEqualTo("rw-r-----");
+        assertThat(Files.getLastModifiedTime(file).toMillis()).isEqualTo(2000);
+        assertThat(PackStore.readAttributes(target.resolve("dir")))
+                .isEqualTo(owner + ":" + group + ":r-x------");
+        // Devolve a escrita para o @TempDir conseguir apagar
+        Files.setPosixFilePermissions(target.resolve("dir"), PosixFilePermissions.fromString("rwx------"));
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path index = Files.createTempFile(store.getRoot(), "b", PackStore.INDEX_SUFFIX);
+        Files.write(index, List.of(lines));
+        return index;
+    }
+}
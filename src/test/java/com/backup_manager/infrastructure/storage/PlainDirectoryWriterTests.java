@@ -0,0 +1,86 @@
+package com.backup_manager.infrastructure.storage;
+
+import com.backup_manager.domain.model.BackupOptions;
+import com.backup_manager.domain.model.ManifestEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlainDirectoryWriterTests {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void compressedTreeRestoresWithGunzip() throws IOException {
+        Path source = root.resolve("source");
+        write(source.resolve("app.log"), "linha de log repetida\n".repeat(2000).getBytes(StandardCharsets.UTF_8));
+        write(source.resolve("dir/notes.md"), "# notas\n".repeat(1000).getBytes(StandardCharsets.UTF_8));
+        write(source.resolve("dir/tiny.txt"), "pequeno".getBytes(StandardCharsets.UTF_8));
+        byte[] random = new byte[50_000];
+        new Random(3).nextBytes(random);
+        write(source.resolve("random.bin"), random);
+        // Já tinha ".gz" na origem: não pode ser confundido com saída da compressão
+        write(source.resolve("old.gz"), random);
+
+        Path destination = Files.createDirectories(root.resolve("destination"));
+        BackupOptions options = BackupOptions.defaults();
+        options.setCompress(true);
+        PlainDirectoryWriter writer = new PlainDirectoryWriter(destination, options, (code, path, error) -> { },
+                new LargeFileCopier(CopyStrategy.BUFFER, 64 * 1024, 0), Long.MAX_VALUE, Set.of(),
+                new FileCompressor(new CompressionStats()));
+        List<ManifestEntry> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path file : paths.filter(Files::isRegularFile).toList()) {
+                ManifestEntry entry = new ManifestEntry(source.relativize(file).toString(), Files.size(file),
+                        Files.getLastModifiedTime(file).toMillis(), false);
+                Files.createDirectories(destination.resolve(entry.getRelativePath()).getParent());
+                writer.writeFile(file, entry, TransferMonitor.NONE);
+                files.add(entry);
+            }
+        }
+        writer.finish(files, true);
+
+        assertThat(destination.resolve("app.log.gz")).exists();
+        assertThat(destination.resolve("dir/notes.md.gz")).exists();
+        assertThat(destination.resolve("dir/tiny.txt")).exists();
+        assertThat(destination.resolve("random.bin")).exists();
+
+        DestinationIndex index = DestinationIndex.load(destination);
+        for (ManifestEntry entry : files) {
+            assertThat(restore(destination, index, entry.getRelativePath()))
+                    .as(entry.getRelativePath())
+                    .isEqualTo(Files.readAllBytes(source.resolve(entry.getRelativePath())));
+        }
+    }
+
+    // Restauração manual descrita no FileCompressor: o índice tem o caminho original
+    private static byte[] restore(Path destination, DestinationIndex index, String relativePath) throws IOException {
+        assertThat(index.get(relativePath)).isNotNull();
+        Path plain = destination.resolve(relativePath);
+        if (Files.exists(plain)) {
+            return Files.readAllBytes(plain);
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(FileCompressor.compressedPath(plain)))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void write(Path file, byte[] data) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, data);
+    }
+}